@@ -0,0 +1,353 @@
+package org.example.se302_examscheduler;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+// Compact column-per-field export of a timetable for analytics. Strings are written once in
+// dictionaries and referenced by index; slots are day ordinals (days after the first exam date)
+// with start/end minutes; sessions are sorted by slot so the slot column is run-length encoded;
+// each student's sessions are ascending session indexes, stored as gaps. The whole file is deflated.
+//
+// Layout after the magic and version: room, course and student dictionaries; the slot table;
+// the session columns (course, slot, room count, rooms, seats); per-student session counts and
+// the session gap column.
+public final class ColumnarExport {
+
+    private static final int MAGIC = 0x53453343;  // "SE3C"
+    private static final int VERSION = 1;
+
+    private ColumnarExport() {}
+
+    public static void write(ScheduleSnapshot schedule, File out) throws IOException {
+        try (OutputStream os = new FileOutputStream(out)) {
+            write(schedule, os);
+        }
+    }
+
+    public static void write(ScheduleSnapshot schedule, OutputStream out) throws IOException {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            DeflaterOutputStream zipped = new DeflaterOutputStream(out, deflater, 1 << 16);
+            DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(zipped, 1 << 16));
+            writeTables(schedule, dos);
+            dos.flush();
+            zipped.finish();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static void writeTables(ScheduleSnapshot schedule, DataOutputStream out) throws IOException {
+        List<ExamSession> sessions = new ArrayList<>(schedule.getExamSessions());
+
+        // Slots in time order; the slot index is the slot ordinal of the file
+        Map<ExamSlot, Integer> slotIndex = new HashMap<>();
+        for (ExamSlot s : schedule.getExamSlots()) slotIndex.put(s, -1);
+        for (ExamSession s : sessions) slotIndex.put(s.getSlot(), -1);
+        List<ExamSlot> slots = new ArrayList<>(slotIndex.keySet());
+        slots.sort(Comparator.comparing(ExamSlot::getDate).thenComparing(ExamSlot::getStartTime)
+                .thenComparing(ExamSlot::getEndTime));
+        for (int i = 0; i < slots.size(); i++) slotIndex.put(slots.get(i), i);
+        sessions.sort(Comparator.comparing((ExamSession s) -> slotIndex.get(s.getSlot()))
+                .thenComparing(s -> s.getCourse().getCode()));
+
+        Map<Classroom, Integer> roomIndex = new HashMap<>();
+        List<Classroom> rooms = schedule.getClassrooms();
+        for (int i = 0; i < rooms.size(); i++) roomIndex.put(rooms.get(i), i);
+        Map<Course, Integer> courseIndex = new HashMap<>();
+        List<Course> courses = schedule.getCourses();
+        for (int i = 0; i < courses.size(); i++) courseIndex.put(courses.get(i), i);
+        Map<Course, Integer> sessionIndex = new HashMap<>();
+        for (int i = 0; i < sessions.size(); i++) sessionIndex.put(sessions.get(i).getCourse(), i);
+
+        out.writeInt(MAGIC);
+        writeVarInt(out, VERSION);
+        writeVarInt(out, rooms.size());
+        for (Classroom r : rooms) out.writeUTF(r.getName());
+        writeVarInt(out, courses.size());
+        for (Course c : courses) out.writeUTF(c.getCode());
+        List<Student> students = schedule.getStudents();
+        writeVarInt(out, students.size());
+        for (Student st : students) out.writeUTF(st.getId());
+
+        long baseDay = slots.isEmpty() ? 0 : slots.get(0).getDate().toEpochDay();
+        out.writeLong(baseDay);
+        int[] day = new int[slots.size()];
+        int[] startMin = new int[slots.size()];
+        int[] endMin = new int[slots.size()];
+        for (int i = 0; i < slots.size(); i++) {
+            ExamSlot s = slots.get(i);
+            day[i] = (int) (s.getDate().toEpochDay() - baseDay);
+            startMin[i] = s.getStartTime().toSecondOfDay() / 60;
+            endMin[i] = s.getEndTime().toSecondOfDay() / 60;
+        }
+        writeVarInt(out, slots.size());
+        writeRle(out, day);
+        writeRle(out, startMin);
+        writeRle(out, endMin);
+
+        int n = sessions.size();
+        int[] course = new int[n];
+        int[] slot = new int[n];
+        int[] roomCount = new int[n];
+        int seatCells = 0;
+        for (int i = 0; i < n; i++) {
+            ExamSession s = sessions.get(i);
+            course[i] = courseIndex.get(s.getCourse());
+            slot[i] = slotIndex.get(s.getSlot());
+            roomCount[i] = s.getClassrooms().size();
+            seatCells += roomCount[i];
+        }
+        int[] room = new int[seatCells];
+        int[] seats = new int[seatCells];
+        for (int i = 0, k = 0; i < n; i++) {
+            ExamSession s = sessions.get(i);
+            for (int r = 0; r < roomCount[i]; r++, k++) {
+                room[k] = roomIndex.get(s.getClassrooms().get(r));
+                seats[k] = s.getSeats(r);
+            }
+        }
+        writeVarInt(out, n);
+        for (int c : course) writeVarInt(out, c);
+        writeRle(out, slot);
+        writeRle(out, roomCount);
+        for (int r : room) writeVarInt(out, r);
+        for (int s : seats) writeVarInt(out, s);
+
+        // Student-to-session assignment: the counts first, then each student's gaps written as they
+        // are found, so only one student's sessions are held at a time. Each course list is read once,
+        // so both passes see the same one even if an edit replaces it meanwhile.
+        int[] counts = new int[students.size()];
+        List<List<Course>> taken = new ArrayList<>(students.size());
+        for (int i = 0; i < students.size(); i++) {
+            List<Course> enrolled = students.get(i).getCourses();
+            taken.add(enrolled);
+            for (Course c : enrolled) {
+                if (sessionIndex.containsKey(c)) counts[i]++;
+            }
+        }
+        writeRle(out, counts);
+        int[] own = new int[0];
+        for (int i = 0; i < students.size(); i++) {
+            if (own.length < counts[i]) own = new int[counts[i]];
+            int m = 0;
+            for (Course c : taken.get(i)) {
+                Integer idx = sessionIndex.get(c);
+                if (idx != null) own[m++] = idx;
+            }
+            Arrays.sort(own, 0, m);
+            int prev = -1;
+            for (int k = 0; k < m; k++) {
+                writeVarInt(out, own[k] - prev - 1);
+                prev = own[k];
+            }
+        }
+    }
+
+    public static Table read(File in) throws IOException {
+        try (InputStream is = new FileInputStream(in)) {
+            return read(is);
+        }
+    }
+
+    public static Table read(InputStream in) throws IOException {
+        DataInputStream dis = new DataInputStream(new BufferedInputStream(new InflaterInputStream(in), 1 << 16));
+        if (dis.readInt() != MAGIC) throw new IOException("Not a columnar schedule export");
+        int version = readVarInt(dis);
+        if (version != VERSION) throw new IOException("Unsupported columnar export version " + version);
+        Table t = new Table();
+        t.rooms = readStrings(dis);
+        t.courses = readStrings(dis);
+        t.students = readStrings(dis);
+
+        t.baseDay = dis.readLong();
+        int slots = readVarInt(dis);
+        t.slotDay = readRle(dis, slots);
+        t.slotStart = readRle(dis, slots);
+        t.slotEnd = readRle(dis, slots);
+
+        int n = readVarInt(dis);
+        t.course = readInts(dis, n);
+        t.slot = readRle(dis, n);
+        int[] roomCount = readRle(dis, n);
+        t.roomOffset = new int[n + 1];
+        for (int i = 0; i < n; i++) t.roomOffset[i + 1] = t.roomOffset[i] + roomCount[i];
+        t.room = readInts(dis, t.roomOffset[n]);
+        t.seats = readInts(dis, t.roomOffset[n]);
+
+        int[] counts = readRle(dis, t.students.length);
+        t.studentOffset = new int[counts.length + 1];
+        for (int i = 0; i < counts.length; i++) t.studentOffset[i + 1] = t.studentOffset[i] + counts[i];
+        t.assignment = new int[t.studentOffset[counts.length]];
+        for (int i = 0; i < counts.length; i++) {
+            int prev = -1;
+            for (int k = t.studentOffset[i]; k < t.studentOffset[i + 1]; k++) {
+                prev += readVarInt(dis) + 1;
+                t.assignment[k] = prev;
+            }
+        }
+        return t;
+    }
+
+    // A read export. Sessions are addressed by index (in slot order), students by dictionary index.
+    public static class Table {
+        String[] rooms;
+        String[] courses;
+        String[] students;
+        long baseDay;
+        int[] slotDay;
+        int[] slotStart;
+        int[] slotEnd;
+        int[] course;
+        int[] slot;
+        int[] roomOffset;
+        int[] room;
+        int[] seats;
+        int[] studentOffset;
+        int[] assignment;
+        private Map<String, Integer> sessionByCourse;
+
+        public int getSessionCount() {
+            return course.length;
+        }
+
+        public String getCourse(int session) {
+            return courses[course[session]];
+        }
+
+        // Position of the session's slot in time order
+        public int getSlotOrdinal(int session) {
+            return slot[session];
+        }
+
+        // Days after the first exam date of the export
+        public int getDayOrdinal(int session) {
+            return slotDay[slot[session]];
+        }
+
+        public LocalDate getDate(int session) {
+            return LocalDate.ofEpochDay(baseDay + getDayOrdinal(session));
+        }
+
+        public LocalTime getStartTime(int session) {
+            return LocalTime.ofSecondOfDay(slotStart[slot[session]] * 60L);
+        }
+
+        public LocalTime getEndTime(int session) {
+            return LocalTime.ofSecondOfDay(slotEnd[slot[session]] * 60L);
+        }
+
+        public List<String> getRooms(int session) {
+            List<String> out = new ArrayList<>(roomOffset[session + 1] - roomOffset[session]);
+            for (int k = roomOffset[session]; k < roomOffset[session + 1]; k++) {
+                out.add(rooms[room[k]]);
+            }
+            return out;
+        }
+
+        public int[] getSeats(int session) {
+            return Arrays.copyOfRange(seats, roomOffset[session], roomOffset[session + 1]);
+        }
+
+        // Session index of the course's exam, or -1 if it had none
+        public int sessionOf(String courseCode) {
+            Map<String, Integer> map = sessionByCourse;
+            if (map == null) {
+                map = new HashMap<>();
+                for (int i = 0; i < course.length; i++) map.put(courses[course[i]], i);
+                sessionByCourse = map;
+            }
+            return map.getOrDefault(courseCode, -1);
+        }
+
+        public int getStudentCount() {
+            return students.length;
+        }
+
+        public String getStudent(int student) {
+            return students[student];
+        }
+
+        // Session indexes of the student's exams, ascending
+        public int[] sessionsOf(int student) {
+            return Arrays.copyOfRange(assignment, studentOffset[student], studentOffset[student + 1]);
+        }
+    }
+
+    // Columns of (value, run length) pairs; the reader knows the column length
+    private static void writeRle(DataOutputStream out, int[] values) throws IOException {
+        int i = 0;
+        while (i < values.length) {
+            int j = i + 1;
+            while (j < values.length && values[j] == values[i]) j++;
+            writeVarInt(out, values[i]);
+            writeVarInt(out, j - i);
+            i = j;
+        }
+    }
+
+    private static int[] readRle(DataInputStream in, int n) throws IOException {
+        int[] values = new int[n];
+        int i = 0;
+        while (i < n) {
+            int v = readVarInt(in);
+            int run = readVarInt(in);
+            if (run <= 0 || i + run > n) throw new IOException("Corrupt run length");
+            Arrays.fill(values, i, i + run, v);
+            i += run;
+        }
+        return values;
+    }
+
+    private static int[] readInts(DataInputStream in, int n) throws IOException {
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) values[i] = readVarInt(in);
+        return values;
+    }
+
+    private static String[] readStrings(DataInputStream in) throws IOException {
+        String[] values = new String[readVarInt(in)];
+        for (int i = 0; i < values.length; i++) values[i] = in.readUTF();
+        return values;
+    }
+
+    // Unsigned LEB128; every value written here is non-negative
+    static void writeVarInt(DataOutputStream out, int v) throws IOException {
+        while ((v & ~0x7F) != 0) {
+            out.writeByte((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.writeByte(v);
+    }
+
+    static int readVarInt(DataInputStream in) throws IOException {
+        int v = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.read();
+            if (b < 0) throw new EOFException();
+            v |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new IOException("Malformed varint");
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.se302_examscheduler;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+// Courses as vertices, an edge wherever two courses share a student. Neighbour lists are sorted
+// index arrays; large inputs are built in parallel, one course per task.
+public class ConflictGraph {
+
+    static final int PARALLEL_THRESHOLD = 500;
+
+    private final List<Course> courses;
+    private final Map<Course, Integer> index = new HashMap<>();
+    private final int[][] neighbours;
+
+    public ConflictGraph(List<Course> courses) {
+        this.courses = List.copyOf(courses);
+        for (int i = 0; i < this.courses.size(); i++) index.put(this.courses.get(i), i);
+
+        this.neighbours = new int[this.courses.size()][];
+        IntStream range = IntStream.range(0, this.courses.size());
+        if (this.courses.size() >= PARALLEL_THRESHOLD) range = range.parallel();
+        range.forEach(i -> neighbours[i] = collectNeighbours(i));
+    }
+
+    private int[] collectNeighbours(int i) {
+        IntStream.Builder b = IntStream.builder();
+        for (Student s : courses.get(i).getStudents()) {
+            for (Course other : s.getCourses()) {
+                Integer j = index.get(other);
+                if (j != null && j != i) b.add(j);
+            }
+        }
+        return b.build().distinct().sorted().toArray();
+    }
+
+    public int size() {
+        return courses.size();
+    }
+
+    public Course course(int i) {
+        return courses.get(i);
+    }
+
+    public int indexOf(Course course) {
+        Integer i = index.get(course);
+        return i == null ? -1 : i;
+    }
+
+    public int[] neighbours(int i) {
+        return neighbours[i];
+    }
+
+    public int degree(int i) {
+        return neighbours[i].length;
+    }
+
+    public boolean adjacent(int i, int j) {
+        return Arrays.binarySearch(neighbours[i], j) >= 0;
+    }
+
+    // Greedy clique grown from each of the highest-degree vertices; returns the largest found.
+    public List<Course> greedyClique(int starts) {
+        Integer[] byDegree = new Integer[size()];
+        for (int i = 0; i < byDegree.length; i++) byDegree[i] = i;
+        Arrays.sort(byDegree, (a, b) -> Integer.compare(degree(b), degree(a)));
+
+        IntStream seeds = IntStream.range(0, Math.min(starts, byDegree.length));
+        if (size() >= PARALLEL_THRESHOLD) seeds = seeds.parallel();
+        int[] best = seeds.mapToObj(k -> growClique(byDegree[k]))
+                .max(Comparator.comparingInt(c -> c.length))
+                .orElse(new int[0]);
+
+        List<Course> out = new ArrayList<>(best.length);
+        for (int i : best) out.add(courses.get(i));
+        return out;
+    }
+
+    private int[] growClique(int seed) {
+        int[] candidates = neighbours[seed].clone();
+        Integer[] order = Arrays.stream(candidates).boxed().toArray(Integer[]::new);
+        Arrays.sort(order, (a, b) -> Integer.compare(degree(b), degree(a)));
+
+        int[] clique = new int[candidates.length + 1];
+        int n = 0;
+        clique[n++] = seed;
+        for (int v : order) {
+            boolean all = true;
+            for (int k = 1; k < n && all; k++) all = adjacent(v, clique[k]);
+            if (all) clique[n++] = v;
+        }
+        return Arrays.copyOf(clique, n);
+    }
+
+    // Connected components of the enrolment graph (union-find over shared students), largest first.
+    public static List<List<Course>> components(List<Course> courses) {
+        int[] parent = new int[courses.size()];
+        for (int i = 0; i < parent.length; i++) parent[i] = i;
+
+        Map<Student, Integer> firstCourse = new HashMap<>();
+        for (int i = 0; i < courses.size(); i++) {
+            for (Student s : courses.get(i).getStudents()) {
+                Integer j = firstCourse.putIfAbsent(s, i);
+                if (j != null) union(parent, i, j);
+            }
+        }
+
+        Map<Integer, List<Course>> byRoot = new LinkedHashMap<>();
+        for (int i = 0; i < courses.size(); i++) {
+            byRoot.computeIfAbsent(find(parent, i), k -> new ArrayList<>()).add(courses.get(i));
+        }
+        List<List<Course>> out = new ArrayList<>(byRoot.values());
+        out.sort(Comparator.comparingInt((List<Course> c) -> c.size()).reversed());
+        return out;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int ra = find(parent, a);
+        int rb = find(parent, b);
+        if (ra != rb) parent[Math.max(ra, rb)] = Math.min(ra, rb);
+    }
+}
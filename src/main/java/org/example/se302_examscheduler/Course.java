@@ -1,11 +1,12 @@
 package org.example.se302_examscheduler;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 public class Course {
     private final String code;
-    private final List<Student> students = new ArrayList<>();
+    // Copy-on-write: edits install a new read-only list (see MembershipList.edited)
+    private volatile List<Student> students = MembershipList.edited(List.of(), List.of(), List.of());
     private ExamSession examSession;
 
     public Course(String code) {
@@ -16,14 +17,26 @@ public class Course {
         return code;
     }
 
+    // Read-only; a later edit replaces the list rather than changing it
     public List<Student> getStudents() {
         return students;
     }
 
     public void addStudent(Student s) {
-        if (!students.contains(s)) {
-            students.add(s);
-        }
+        if (!students.contains(s)) updateStudents(List.of(s), List.of());
+    }
+
+    public void removeStudent(Student s) {
+        if (students.contains(s)) updateStudents(List.of(), List.of(s));
+    }
+
+    // Any number of additions and removals as one new roster
+    public synchronized void updateStudents(Collection<Student> added, Collection<Student> removed) {
+        students = MembershipList.edited(students, added, removed);
+    }
+
+    public synchronized void setStudents(Collection<Student> roster) {
+        students = MembershipList.edited(List.of(), roster, List.of());
     }
 
     public ExamSession getExamSession() {
@@ -4,17 +4,29 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class DataImporter {
 
     public static void importClassrooms(File file, Schedule schedule) throws IOException {
+        readClassrooms(file, schedule);
+        DatabaseManager.replaceAllClassrooms(schedule.getClassrooms());
+    }
+
+    public static void readClassrooms(File file, Schedule schedule) throws IOException {
         schedule.getClassrooms().clear();
 
+        long t0 = SchedulerMetrics.start();
+        long rows = 0;
         try (BufferedReader br = new BufferedReader(new FileReader(file))) {
             String line = br.readLine();
             while ((line = br.readLine()) != null) {
                 if (line.trim().isEmpty()) continue;
+                rows++;
 
                 String[] parts = line.split("[,;]");
                 if (parts.length >= 2) {
@@ -25,17 +37,25 @@ public class DataImporter {
                 }
             }
         }
-
-        DatabaseManager.replaceAllClassrooms(schedule.getClassrooms());
+        endImport(t0, rows);
+        schedule.publish();
     }
 
     public static void importCourses(File file, Schedule schedule) throws IOException {
+        readCourses(file, schedule);
+        DatabaseManager.replaceAllCourses(schedule.getCourses());
+    }
+
+    public static void readCourses(File file, Schedule schedule) throws IOException {
         schedule.getCourses().clear();
 
+        long t0 = SchedulerMetrics.start();
+        long rows = 0;
         try (BufferedReader br = new BufferedReader(new FileReader(file))) {
             String line = br.readLine();
             while ((line = br.readLine()) != null) {
                 if (line.trim().isEmpty()) continue;
+                rows++;
 
                 String[] parts = line.split("[,;]");
                 if (parts.length >= 1) {
@@ -46,17 +66,25 @@ public class DataImporter {
                 }
             }
         }
-
-        DatabaseManager.replaceAllCourses(schedule.getCourses());
+        endImport(t0, rows);
+        schedule.publish();
     }
 
     public static void importStudents(File file, Schedule schedule) throws IOException {
+        readStudents(file, schedule);
+        DatabaseManager.replaceAllStudents(schedule.getStudents());
+    }
+
+    public static void readStudents(File file, Schedule schedule) throws IOException {
         schedule.getStudents().clear();
 
+        long t0 = SchedulerMetrics.start();
+        long rows = 0;
         try (BufferedReader br = new BufferedReader(new FileReader(file))) {
             String line = br.readLine();
             while ((line = br.readLine()) != null) {
                 if (line.trim().isEmpty()) continue;
+                rows++;
 
                 String[] parts = line.split("[,;]");
                 if (parts.length >= 1) {
@@ -67,52 +95,95 @@ public class DataImporter {
                 }
             }
         }
-
-        DatabaseManager.replaceAllStudents(schedule.getStudents());
+        endImport(t0, rows);
+        schedule.publish();
     }
 
-    // Format: CourseCode_01;[S001,S002,...] or CourseCode_01,[S001,S002,...]
     public static void importAttendance(File file, Schedule schedule) throws IOException {
-        Map<String, Course> coursesMap = schedule.getCoursesMap();
-        Map<String, Student> studentsMap = schedule.getStudentsMap();
-
-        for (Course c : schedule.getCourses()) {
-            c.getStudents().clear();
-        }
-        for (Student s : schedule.getStudents()) {
-            s.getCourses().clear();
-        }
-
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line = br.readLine();
-            while ((line = br.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-
-                String[] parts = line.split("[,;]");
-                if (parts.length < 2) continue;
-
-                String courseCode = parts[0].trim();
-                String studentsPart = parts[1].trim();
-
-                Course course = coursesMap.get(courseCode);
-                if (course == null) continue;
+        readAttendance(file, schedule);
+        DatabaseManager.replaceAllEnrollments(schedule.getCourses());
+    }
 
-                studentsPart = studentsPart.replace("[", "").replace("]", "");
-                String[] studentIds = studentsPart.split("\\s*\\|\\s*|\\s*,\\s*");
+    // Format: CourseCode_01;[S001|S002|...], also with ',' between the fields or the IDs. The file is
+    // read a character at a time and every ID is looked up as soon as it ends, so memory does not
+    // grow with the roster: a row is never held as one String.
+    public static void readAttendance(File file, Schedule schedule) throws IOException {
+        // Collected first and installed as one new list per course and student at the end
+        Map<Course, List<Student>> rosters = new HashMap<>();
+        Map<Student, List<Course>> taken = new HashMap<>();
+
+        long t0 = SchedulerMetrics.start();
+        long rows = 0;
+        try (Reader in = new BufferedReader(new FileReader(file), 1 << 16)) {
+            StringBuilder token = new StringBuilder(32);
+            int c = skipLine(in);  // header
+            while (c != -1) {
+                c = readField(in, c, token, ";,");
+                String courseCode = token.toString();
+                if (c != ';' && c != ',') {
+                    if (!courseCode.isEmpty()) rows++;
+                    c = c == '\n' ? in.read() : c;
+                    continue;
+                }
+                rows++;
 
-                for (String sid : studentIds) {
-                    String studentId = sid.trim();
-                    if (studentId.isEmpty()) continue;
+                Course course = schedule.getCourse(courseCode);
+                if (course == null) {
+                    c = skipLine(in);
+                    continue;
+                }
 
-                    Student student = studentsMap.get(studentId);
-                    if (student != null) {
-                        course.addStudent(student);
-                        student.addCourse(course);
+                c = in.read();
+                while (c != -1 && c != '\n' && c != ']') {
+                    c = readField(in, c, token, "|,]");
+                    if (token.length() > 0) {
+                        Student student = schedule.getStudent(token.toString());
+                        if (student != null) {
+                            rosters.computeIfAbsent(course, k -> new ArrayList<>()).add(student);
+                            taken.computeIfAbsent(student, k -> new ArrayList<>()).add(course);
+                        }
                     }
+                    if (c == '|' || c == ',') c = in.read();
+                }
+                if (c == ']') {
+                    c = skipLine(in);  // anything after the roster is ignored
+                } else if (c == '\n') {
+                    c = in.read();
                 }
             }
         }
+        for (Course c : schedule.getCourses()) c.setStudents(rosters.getOrDefault(c, List.of()));
+        for (Student s : schedule.getStudents()) s.setCourses(taken.getOrDefault(s, List.of()));
+        endImport(t0, rows);
+        schedule.publish();
+    }
 
-        DatabaseManager.replaceAllEnrollments(schedule.getCourses());
+    // Reads from c up to (not including) one of the stops or the line break into token, trimmed and
+    // without an opening '['; returns the character that ended it
+    private static int readField(Reader in, int c, StringBuilder token, String stops) throws IOException {
+        token.setLength(0);
+        while (c != -1 && c != '\n' && stops.indexOf(c) < 0) {
+            if (token.length() > 0 || (c != '[' && !Character.isWhitespace(c))) token.append((char) c);
+            c = in.read();
+        }
+        int end = token.length();
+        while (end > 0 && Character.isWhitespace(token.charAt(end - 1))) end--;
+        token.setLength(end);
+        return c;
+    }
+
+    // Skips the rest of the line; returns the first character of the next one
+    private static int skipLine(Reader in) throws IOException {
+        int c;
+        do {
+            c = in.read();
+        } while (c != -1 && c != '\n');
+        return c == -1 ? -1 : in.read();
+    }
+
+    private static void endImport(long t0, long rows) {
+        if (t0 == 0L) return;
+        SchedulerMetrics.add(SchedulerMetrics.Counter.IMPORTED_ROWS, rows);
+        SchedulerMetrics.stop(SchedulerMetrics.Phase.IMPORT, t0, rows);
     }
-}
\ No newline at end of file
+}
@@ -7,7 +7,13 @@ import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 
 public final class DatabaseManager {
@@ -76,6 +82,100 @@ public final class DatabaseManager {
                 )
             """);
 
+            st.executeUpdate("""
+                CREATE TABLE IF NOT EXISTS exam_session_rooms (
+                    course_code TEXT NOT NULL,
+                    classroom_id TEXT NOT NULL,
+                    seats INTEGER NOT NULL CHECK(seats >= 0),
+                    position INTEGER NOT NULL,
+                    PRIMARY KEY(course_code, classroom_id),
+                    FOREIGN KEY(course_code) REFERENCES exam_sessions(course_code) ON DELETE CASCADE,
+                    FOREIGN KEY(classroom_id) REFERENCES classrooms(id) ON DELETE RESTRICT
+                )
+            """);
+
+            st.executeUpdate("""
+                CREATE TABLE IF NOT EXISTS scenarios (
+                    name TEXT PRIMARY KEY,
+                    start_date TEXT NOT NULL,
+                    end_date TEXT NOT NULL,
+                    options TEXT NOT NULL DEFAULT ''
+                )
+            """);
+
+            // One row per room of a scenario's session; base data is shared, never copied
+            st.executeUpdate("""
+                CREATE TABLE IF NOT EXISTS scenario_sessions (
+                    scenario TEXT NOT NULL,
+                    course_code TEXT NOT NULL,
+                    position INTEGER NOT NULL,
+                    classroom_id TEXT NOT NULL,
+                    seats INTEGER NOT NULL CHECK(seats >= 0),
+                    date TEXT NOT NULL,
+                    start_time TEXT NOT NULL,
+                    end_time TEXT NOT NULL,
+                    PRIMARY KEY(scenario, course_code, position),
+                    FOREIGN KEY(scenario) REFERENCES scenarios(name) ON DELETE CASCADE,
+                    FOREIGN KEY(course_code) REFERENCES courses(code) ON DELETE CASCADE,
+                    FOREIGN KEY(classroom_id) REFERENCES classrooms(id) ON DELETE CASCADE
+                )
+            """);
+
+            // Generated timetables by input fingerprint; see SolutionCache
+            st.executeUpdate("""
+                CREATE TABLE IF NOT EXISTS solution_cache (
+                    fingerprint TEXT PRIMARY KEY,
+                    data_hash TEXT NOT NULL,
+                    settings_hash TEXT NOT NULL,
+                    status TEXT NOT NULL,
+                    score INTEGER NOT NULL,
+                    room_sharing INTEGER NOT NULL,
+                    used_at INTEGER NOT NULL
+                )
+            """);
+
+            // Codes and names only: a cached timetable outlives the rooms and courses it was made for
+            st.executeUpdate("""
+                CREATE TABLE IF NOT EXISTS solution_sessions (
+                    fingerprint TEXT NOT NULL,
+                    course_code TEXT NOT NULL,
+                    position INTEGER NOT NULL,
+                    classroom_id TEXT NOT NULL,
+                    seats INTEGER NOT NULL CHECK(seats >= 0),
+                    date TEXT NOT NULL,
+                    start_time TEXT NOT NULL,
+                    end_time TEXT NOT NULL,
+                    PRIMARY KEY(fingerprint, course_code, position),
+                    FOREIGN KEY(fingerprint) REFERENCES solution_cache(fingerprint) ON DELETE CASCADE
+                )
+            """);
+
+            // Published timetables; see ScheduleHistory. Names are numbered once and never renumbered.
+            st.executeUpdate("""
+                CREATE TABLE IF NOT EXISTS history_names (
+                    id INTEGER PRIMARY KEY,
+                    name TEXT NOT NULL UNIQUE
+                )
+            """);
+
+            st.executeUpdate("""
+                CREATE TABLE IF NOT EXISTS schedule_versions (
+                    version INTEGER PRIMARY KEY,
+                    published_at INTEGER NOT NULL,
+                    keyframe INTEGER NOT NULL,
+                    sessions INTEGER NOT NULL,
+                    changes INTEGER NOT NULL,
+                    delta BLOB NOT NULL
+                )
+            """);
+
+            st.executeUpdate("""
+                CREATE TABLE IF NOT EXISTS settings (
+                    key TEXT PRIMARY KEY,
+                    value TEXT NOT NULL
+                )
+            """);
+
         } catch (SQLException e) {
             throw new RuntimeException("DB init failed: " + e.getMessage(), e);
         }
@@ -155,9 +255,20 @@ public final class DatabaseManager {
         clearExamSessions();
     }
 
+    // Also records whether rooms were shared, so validation after a reload accepts the packing
+    public static void saveExamSessions(Schedule schedule) {
+        saveExamSessions(schedule.getExamSessions());
+        saveSetting("room_sharing", String.valueOf(schedule.isRoomSharing()));
+        List<ExamSlot> slots = schedule.getExamSlots();
+        // The slot window the timetable was generated over; reloads rebuild the same slot indexes from it
+        saveSetting("exam_window", slots.isEmpty() ? ""
+                : slots.get(0).getDate() + ".." + slots.get(slots.size() - 1).getDate());
+    }
+
     public static void saveExamSessions(List<ExamSession> sessions) {
         inTransaction(c -> {
             try (Statement st = c.createStatement()) {
+                st.executeUpdate("DELETE FROM exam_session_rooms");
                 st.executeUpdate("DELETE FROM exam_sessions");
             }
             try (PreparedStatement ps = c.prepareStatement(
@@ -172,12 +283,176 @@ public final class DatabaseManager {
                 }
                 ps.executeBatch();
             }
+            try (PreparedStatement ps = c.prepareStatement(
+                    "INSERT INTO exam_session_rooms(course_code, classroom_id, seats, position) VALUES(?, ?, ?, ?)")) {
+                for (ExamSession s : sessions) {
+                    if (!s.isSplit()) continue;
+                    for (int i = 0; i < s.getClassrooms().size(); i++) {
+                        ps.setString(1, s.getCourse().getCode());
+                        ps.setString(2, s.getClassrooms().get(i).getName());
+                        ps.setInt(3, s.getSeats(i));
+                        ps.setInt(4, i);
+                        ps.addBatch();
+                    }
+                }
+                ps.executeBatch();
+            }
+            recordScheduleVersion(c, sessions);
         });
     }
 
+    // Publishes a timetable edited in place (e.g. by manual moves) as one history version
+    public static void recordScheduleVersion(List<ExamSession> sessions) {
+        inTransaction(c -> recordScheduleVersion(c, sessions));
+    }
+
+    // Appends the timetable to the history unless it equals the latest version
+    private static void recordScheduleVersion(Connection c, List<ExamSession> sessions) throws SQLException {
+        Map<String, Integer> ordinals = new HashMap<>();
+        try (Statement st = c.createStatement(); ResultSet rs = st.executeQuery("SELECT id, name FROM history_names")) {
+            while (rs.next()) ordinals.put(rs.getString(2), rs.getInt(1));
+        }
+        try (PreparedStatement ps = c.prepareStatement("INSERT INTO history_names(id, name) VALUES(?, ?)")) {
+            for (ExamSession s : sessions) {
+                addHistoryName(ps, ordinals, s.getCourse().getCode());
+                for (Classroom r : s.getClassrooms()) addHistoryName(ps, ordinals, r.getName());
+            }
+            ps.executeBatch();
+        }
+
+        int latest;
+        try (Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schedule_versions")) {
+            latest = rs.next() ? rs.getInt(1) : 0;
+        }
+        ScheduleHistory.Version previous = latest == 0 ? ScheduleHistory.Version.empty() : readScheduleVersion(c, latest);
+        ScheduleHistory.Version current = ScheduleHistory.Version.of(sessions, ordinals);
+        byte[] delta = ScheduleHistory.encodeDelta(previous, current);
+        int changes = ScheduleHistory.changeCount(delta);
+        if (latest > 0 && changes == 0) return;
+        boolean keyframe = latest % ScheduleHistory.KEYFRAME == 0;
+        if (keyframe) delta = ScheduleHistory.encodeDelta(ScheduleHistory.Version.empty(), current);
+        try (PreparedStatement ps = c.prepareStatement(
+                "INSERT INTO schedule_versions(version, published_at, keyframe, sessions, changes, delta) VALUES(?, ?, ?, ?, ?, ?)")) {
+            ps.setInt(1, latest + 1);
+            ps.setLong(2, System.currentTimeMillis());
+            ps.setInt(3, keyframe ? 1 : 0);
+            ps.setInt(4, current.size());
+            ps.setInt(5, changes);
+            ps.setBytes(6, delta);
+            ps.executeUpdate();
+        }
+    }
+
+    private static void addHistoryName(PreparedStatement ps, Map<String, Integer> ordinals, String name) throws SQLException {
+        if (ordinals.containsKey(name)) return;
+        ordinals.put(name, ordinals.size());
+        ps.setInt(1, ordinals.get(name));
+        ps.setString(2, name);
+        ps.addBatch();
+    }
+
+    // Replays the deltas since the version's keyframe; null when there is no such version
+    private static ScheduleHistory.Version readScheduleVersion(Connection c, int version) throws SQLException {
+        ScheduleHistory.Version v = null;
+        try (PreparedStatement ps = c.prepareStatement(
+                "SELECT version, delta FROM schedule_versions WHERE version <= ? AND version >= " +
+                        "(SELECT MAX(version) FROM schedule_versions WHERE keyframe = 1 AND version <= ?) ORDER BY version")) {
+            ps.setInt(1, version);
+            ps.setInt(2, version);
+            try (ResultSet rs = ps.executeQuery()) {
+                int last = 0;
+                while (rs.next()) {
+                    v = ScheduleHistory.applyDelta(v == null ? ScheduleHistory.Version.empty() : v, rs.getBytes(2));
+                    last = rs.getInt(1);
+                }
+                return last == version ? v : null;
+            }
+        }
+    }
+
+    // Null when there is no such version
+    public static ScheduleHistory.Version loadScheduleVersion(int version) {
+        ScheduleHistory.Version[] out = new ScheduleHistory.Version[1];
+        inTransaction(c -> {
+            out[0] = readScheduleVersion(c, version);
+            if (out[0] == null) return;
+            List<String> names = new ArrayList<>();
+            try (Statement st = c.createStatement(); ResultSet rs = st.executeQuery("SELECT name FROM history_names ORDER BY id")) {
+                while (rs.next()) names.add(rs.getString(1));
+            }
+            out[0].names = names.toArray(new String[0]);
+        });
+        return out[0];
+    }
+
+    public static List<ScheduleHistory.Info> listScheduleVersions() {
+        return queryList("SELECT version, published_at, sessions, changes FROM schedule_versions ORDER BY version",
+                rs -> new ScheduleHistory.Info(rs.getInt(1), rs.getLong(2), rs.getInt(3), rs.getInt(4)));
+    }
+
+    // Rewrites the rows of one moved session instead of the whole table. Not a publication: callers
+    // record the edited timetable with recordScheduleVersion once the edits are done.
+    public static void updateExamSession(ExamSession s) {
+        inTransaction(c -> {
+            int updated;
+            try (PreparedStatement ps = c.prepareStatement(
+                    "UPDATE exam_sessions SET classroom_id = ?, date = ?, start_time = ?, end_time = ? WHERE course_code = ?")) {
+                ps.setString(1, s.getClassroom().getName());
+                ps.setString(2, s.getSlot().getDate().toString());
+                ps.setString(3, s.getSlot().getStartTime().toString());
+                ps.setString(4, s.getSlot().getEndTime().toString());
+                ps.setString(5, s.getCourse().getCode());
+                updated = ps.executeUpdate();
+            }
+            if (updated == 0) {
+                try (PreparedStatement ps = c.prepareStatement(
+                        "INSERT INTO exam_sessions(course_code, classroom_id, date, start_time, end_time) VALUES(?, ?, ?, ?, ?)")) {
+                    ps.setString(1, s.getCourse().getCode());
+                    ps.setString(2, s.getClassroom().getName());
+                    ps.setString(3, s.getSlot().getDate().toString());
+                    ps.setString(4, s.getSlot().getStartTime().toString());
+                    ps.setString(5, s.getSlot().getEndTime().toString());
+                    ps.executeUpdate();
+                }
+            }
+            try (PreparedStatement ps = c.prepareStatement("DELETE FROM exam_session_rooms WHERE course_code = ?")) {
+                ps.setString(1, s.getCourse().getCode());
+                ps.executeUpdate();
+            }
+            if (!s.isSplit()) return;
+            try (PreparedStatement ps = c.prepareStatement(
+                    "INSERT INTO exam_session_rooms(course_code, classroom_id, seats, position) VALUES(?, ?, ?, ?)")) {
+                for (int i = 0; i < s.getClassrooms().size(); i++) {
+                    ps.setString(1, s.getCourse().getCode());
+                    ps.setString(2, s.getClassrooms().get(i).getName());
+                    ps.setInt(3, s.getSeats(i));
+                    ps.setInt(4, i);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        });
+    }
+
+    // Durable half of a ModelChange; Schedule.apply patches the loaded model with the same change
+    public static void apply(ModelChange change) {
+        switch (change.getKind()) {
+            case UPSERT_CLASSROOM -> upsertClassroom(change.getKey(), change.getCapacity());
+            case DELETE_CLASSROOM -> deleteClassroom(change.getKey());
+            case UPSERT_STUDENT -> upsertStudent(change.getKey());
+            case DELETE_STUDENT -> deleteStudent(change.getKey());
+            case UPSERT_COURSE -> upsertCourse(change.getKey());
+            case DELETE_COURSE -> deleteCourse(change.getKey());
+            case ENROLL -> addEnrollment(change.getKey(), change.getCourseCode());
+            case UNENROLL -> removeEnrollment(change.getKey(), change.getCourseCode());
+        }
+    }
+
     public static void clearExamSessions() {
         inTransaction(c -> {
             try (Statement st = c.createStatement()) {
+                st.executeUpdate("DELETE FROM exam_session_rooms");
                 st.executeUpdate("DELETE FROM exam_sessions");
             }
         });
@@ -200,17 +475,27 @@ public final class DatabaseManager {
                 ps.executeUpdate();
             }
         });
-        clearExamSessions();
     }
 
     public static void deleteClassroom(String id) {
         inTransaction(c -> {
+            // Only the sessions held in the room go; the rest of the timetable stays
+            try (PreparedStatement ps = c.prepareStatement(
+                    "DELETE FROM exam_sessions WHERE classroom_id=? OR course_code IN " +
+                            "(SELECT course_code FROM exam_session_rooms WHERE classroom_id=?)")) {
+                ps.setString(1, id);
+                ps.setString(2, id);
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = c.prepareStatement(
+                    "DELETE FROM exam_session_rooms WHERE course_code NOT IN (SELECT course_code FROM exam_sessions)")) {
+                ps.executeUpdate();
+            }
             try (PreparedStatement ps = c.prepareStatement("DELETE FROM classrooms WHERE id=?")) {
                 ps.setString(1, id);
                 ps.executeUpdate();
             }
         });
-        clearExamSessions();
     }
 
     public static List<Student> loadStudents() {
@@ -226,7 +511,6 @@ public final class DatabaseManager {
                 ps.executeUpdate();
             }
         });
-        clearExamSessions();
     }
 
     public static void deleteStudent(String id) {
@@ -236,7 +520,6 @@ public final class DatabaseManager {
                 ps.executeUpdate();
             }
         });
-        clearExamSessions();
     }
 
     public static List<Course> loadCoursesShallow() {
@@ -252,17 +535,23 @@ public final class DatabaseManager {
                 ps.executeUpdate();
             }
         });
-        clearExamSessions();
     }
 
     public static void deleteCourse(String code) {
         inTransaction(c -> {
+            try (PreparedStatement ps = c.prepareStatement("DELETE FROM exam_session_rooms WHERE course_code=?")) {
+                ps.setString(1, code);
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = c.prepareStatement("DELETE FROM exam_sessions WHERE course_code=?")) {
+                ps.setString(1, code);
+                ps.executeUpdate();
+            }
             try (PreparedStatement ps = c.prepareStatement("DELETE FROM courses WHERE code=?")) {
                 ps.setString(1, code);
                 ps.executeUpdate();
             }
         });
-        clearExamSessions();
     }
 
     public static List<String> loadStudentIdsForCourse(String courseCode) {
@@ -280,7 +569,30 @@ public final class DatabaseManager {
                 ps.executeUpdate();
             }
         });
-        clearExamSessions();
+    }
+
+    // Adds and removes many enrolments of one course in a single transaction
+    public static void updateEnrollments(String courseCode, Collection<String> added, Collection<String> removed) {
+        inTransaction(c -> {
+            try (PreparedStatement ps = c.prepareStatement(
+                    "INSERT OR IGNORE INTO enrollments(student_id, course_code) VALUES(?, ?)")) {
+                for (String sid : added) {
+                    ps.setString(1, sid);
+                    ps.setString(2, courseCode);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            try (PreparedStatement ps = c.prepareStatement(
+                    "DELETE FROM enrollments WHERE student_id=? AND course_code=?")) {
+                for (String sid : removed) {
+                    ps.setString(1, sid);
+                    ps.setString(2, courseCode);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        });
     }
 
     public static void removeEnrollment(String studentId, String courseCode) {
@@ -292,7 +604,6 @@ public final class DatabaseManager {
                 ps.executeUpdate();
             }
         });
-        clearExamSessions();
     }
 
 
@@ -316,23 +627,34 @@ public final class DatabaseManager {
         schedule.getCourses().addAll(courses);
 
 
-        var studentsMap = schedule.getStudentsMap();
-        var coursesMap = schedule.getCoursesMap();
-
-
+        Map<Course, List<Student>> rosters = new HashMap<>();
+        Map<Student, List<Course>> taken = new HashMap<>();
         queryVoid("SELECT student_id, course_code FROM enrollments",
                 rs -> {
                     String sid = rs.getString(1);
                     String ccode = rs.getString(2);
-                    Student s = studentsMap.get(sid);
-                    Course c = coursesMap.get(ccode);
+                    Student s = schedule.getStudent(sid);
+                    Course c = schedule.getCourse(ccode);
                     if (s != null && c != null) {
-                        s.addCourse(c);
-                        c.addStudent(s);
+                        taken.computeIfAbsent(s, k -> new ArrayList<>()).add(c);
+                        rosters.computeIfAbsent(c, k -> new ArrayList<>()).add(s);
                     }
                 });
+        rosters.forEach(Course::setStudents);
+        taken.forEach(Student::setCourses);
 
 
+        Map<String, List<Classroom>> splitRooms = new HashMap<>();
+        Map<String, List<Integer>> splitSeats = new HashMap<>();
+        queryVoid("SELECT course_code, classroom_id, seats FROM exam_session_rooms ORDER BY course_code, position",
+                rs -> {
+                    Classroom room = schedule.getClassroom(rs.getString(2));
+                    if (room == null) return;
+                    splitRooms.computeIfAbsent(rs.getString(1), k -> new ArrayList<>()).add(room);
+                    splitSeats.computeIfAbsent(rs.getString(1), k -> new ArrayList<>()).add(rs.getInt(3));
+                });
+
+        List<ExamSession> raw = new ArrayList<>();
         queryVoid("SELECT course_code, classroom_id, date, start_time, end_time FROM exam_sessions",
                 rs -> {
                     String ccode = rs.getString(1);
@@ -340,17 +662,256 @@ public final class DatabaseManager {
                     LocalDate d = LocalDate.parse(rs.getString(3));
                     LocalTime st = LocalTime.parse(rs.getString(4));
                     LocalTime et = LocalTime.parse(rs.getString(5));
-                    Course c = coursesMap.get(ccode);
-                    Classroom room = schedule.getClassrooms().stream()
-                            .filter(r -> r.getName().equals(roomId))
-                            .findFirst().orElse(null);
-                    if (c != null && room != null) {
-                        ExamSlot slot = new ExamSlot(d, st, et);
-                        ExamSession session = new ExamSession(c, room, slot);
-                        schedule.getExamSessions().add(session);
-                        c.setExamSession(session);
+                    Course c = schedule.getCourse(ccode);
+                    Classroom room = schedule.getClassroom(roomId);
+                    if (c == null || room == null) return;
+
+                    ExamSlot slot = new ExamSlot(d, st, et);
+                    List<Classroom> split = splitRooms.get(ccode);
+                    if (split != null && split.size() > 1) {
+                        int[] seats = splitSeats.get(ccode).stream().mapToInt(Integer::intValue).toArray();
+                        raw.add(new ExamSession(c, split, seats, slot));
+                    } else {
+                        raw.add(new ExamSession(c, room, slot));
                     }
                 });
+
+        schedule.setRoomSharing(Boolean.parseBoolean(loadSetting("room_sharing")));
+        String window = loadSetting("exam_window");
+        LocalDate start = null;
+        LocalDate end = null;
+        if (window != null && window.contains("..")) {
+            start = LocalDate.parse(window.substring(0, window.indexOf("..")));
+            end = LocalDate.parse(window.substring(window.indexOf("..") + 2));
+        }
+        List<ExamSlot> slots = loadSlotCalendar().slotsCovering(start, end, raw.stream().map(ExamSession::getSlot).toList());
+        Map<ExamSlot, ExamSlot> canonical = new HashMap<>();
+        for (ExamSlot s : slots) canonical.put(s, s);
+        schedule.getExamSlots().addAll(slots);
+
+        for (ExamSession r : raw) {
+            ExamSession session = r.withSlot(canonical.get(r.getSlot()));
+            schedule.getExamSessions().add(session);
+            r.getCourse().setExamSession(session);
+        }
+        schedule.publish();
+    }
+
+    public static void saveScenario(Scenario scenario) {
+        inTransaction(c -> {
+            try (PreparedStatement ps = c.prepareStatement(
+                    "INSERT INTO scenarios(name, start_date, end_date, options) VALUES(?, ?, ?, ?) " +
+                            "ON CONFLICT(name) DO UPDATE SET start_date=excluded.start_date, " +
+                            "end_date=excluded.end_date, options=excluded.options")) {
+                ps.setString(1, scenario.getName());
+                ps.setString(2, scenario.getStart().toString());
+                ps.setString(3, scenario.getEnd().toString());
+                ps.setString(4, scenario.formatOptions());
+                ps.executeUpdate();
+            }
+        });
+    }
+
+    public static List<Scenario> loadScenarios() {
+        return queryList("SELECT name, start_date, end_date, options FROM scenarios ORDER BY name", rs -> {
+            Scenario s = new Scenario(rs.getString(1), LocalDate.parse(rs.getString(2)), LocalDate.parse(rs.getString(3)));
+            s.parseOptions(rs.getString(4));
+            return s;
+        });
+    }
+
+    public static void deleteScenario(String name) {
+        inTransaction(c -> {
+            try (PreparedStatement ps = c.prepareStatement("DELETE FROM scenario_sessions WHERE scenario=?")) {
+                ps.setString(1, name);
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = c.prepareStatement("DELETE FROM scenarios WHERE name=?")) {
+                ps.setString(1, name);
+                ps.executeUpdate();
+            }
+        });
+    }
+
+    public static void saveScenarioSessions(String scenario, List<ExamSession> sessions) {
+        inTransaction(c -> {
+            try (PreparedStatement ps = c.prepareStatement("DELETE FROM scenario_sessions WHERE scenario=?")) {
+                ps.setString(1, scenario);
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = c.prepareStatement(
+                    "INSERT INTO scenario_sessions(scenario, course_code, position, classroom_id, seats, date, start_time, end_time) " +
+                            "VALUES(?, ?, ?, ?, ?, ?, ?, ?)")) {
+                for (ExamSession s : sessions) {
+                    for (int i = 0; i < s.getClassrooms().size(); i++) {
+                        ps.setString(1, scenario);
+                        ps.setString(2, s.getCourse().getCode());
+                        ps.setInt(3, i);
+                        ps.setString(4, s.getClassrooms().get(i).getName());
+                        ps.setInt(5, s.getSeats(i));
+                        ps.setString(6, s.getSlot().getDate().toString());
+                        ps.setString(7, s.getSlot().getStartTime().toString());
+                        ps.setString(8, s.getSlot().getEndTime().toString());
+                        ps.addBatch();
+                    }
+                }
+                ps.executeBatch();
+            }
+        });
+    }
+
+    // Installs a scenario's saved sessions as the timetable of the given schedule
+    public static ScheduleSnapshot loadScenarioInto(Scenario scenario, Schedule schedule) {
+        List<ExamSession> raw = readSessions("scenario_sessions", "scenario", scenario.getName(), schedule);
+        List<ExamSlot> slots = loadSlotCalendar().slotsCovering(scenario.getStart(), scenario.getEnd(),
+                raw.stream().map(ExamSession::getSlot).toList());
+        Map<ExamSlot, ExamSlot> canonical = new HashMap<>();
+        for (ExamSlot s : slots) canonical.put(s, s);
+        List<ExamSession> sessions = new ArrayList<>(raw.size());
+        for (ExamSession r : raw) sessions.add(r.withSlot(canonical.get(r.getSlot())));
+        return schedule.commit(slots, sessions, scenario.isAllowRoomSharing());
+    }
+
+    public static void saveCachedSolution(String fingerprint, String dataHash, String settingsHash,
+                                          SchedulingResult.Status status, long score, boolean roomSharing,
+                                          List<ExamSession> sessions, int keep) {
+        inTransaction(c -> {
+            try (PreparedStatement ps = c.prepareStatement("DELETE FROM solution_sessions WHERE fingerprint=?")) {
+                ps.setString(1, fingerprint);
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = c.prepareStatement(
+                    "INSERT INTO solution_cache(fingerprint, data_hash, settings_hash, status, score, room_sharing, used_at) " +
+                            "VALUES(?, ?, ?, ?, ?, ?, ?) ON CONFLICT(fingerprint) DO UPDATE SET status=excluded.status, " +
+                            "score=excluded.score, room_sharing=excluded.room_sharing, used_at=excluded.used_at")) {
+                ps.setString(1, fingerprint);
+                ps.setString(2, dataHash);
+                ps.setString(3, settingsHash);
+                ps.setString(4, status.name());
+                ps.setLong(5, score);
+                ps.setInt(6, roomSharing ? 1 : 0);
+                ps.setLong(7, System.currentTimeMillis());
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = c.prepareStatement(
+                    "INSERT INTO solution_sessions(fingerprint, course_code, position, classroom_id, seats, date, start_time, end_time) " +
+                            "VALUES(?, ?, ?, ?, ?, ?, ?, ?)")) {
+                for (ExamSession s : sessions) {
+                    for (int i = 0; i < s.getClassrooms().size(); i++) {
+                        ps.setString(1, fingerprint);
+                        ps.setString(2, s.getCourse().getCode());
+                        ps.setInt(3, i);
+                        ps.setString(4, s.getClassrooms().get(i).getName());
+                        ps.setInt(5, s.getSeats(i));
+                        ps.setString(6, s.getSlot().getDate().toString());
+                        ps.setString(7, s.getSlot().getStartTime().toString());
+                        ps.setString(8, s.getSlot().getEndTime().toString());
+                        ps.addBatch();
+                    }
+                }
+                ps.executeBatch();
+            }
+            // Least recently used entries beyond the limit go
+            String stale = "SELECT fingerprint FROM solution_cache ORDER BY used_at DESC LIMIT -1 OFFSET ?";
+            try (PreparedStatement ps = c.prepareStatement("DELETE FROM solution_sessions WHERE fingerprint IN (" + stale + ")")) {
+                ps.setInt(1, keep);
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = c.prepareStatement("DELETE FROM solution_cache WHERE fingerprint IN (" + stale + ")")) {
+                ps.setInt(1, keep);
+                ps.executeUpdate();
+            }
+        });
+    }
+
+    // Null when nothing is stored under the fingerprint. Marks the entry as used.
+    public static SolutionCache.Entry loadCachedSolution(String fingerprint, Schedule schedule) {
+        List<String[]> head = queryList("SELECT status, score, room_sharing FROM solution_cache WHERE fingerprint=?",
+                ps -> ps.setString(1, fingerprint),
+                rs -> new String[]{rs.getString(1), rs.getString(2), rs.getString(3)});
+        if (head.isEmpty()) return null;
+        inTransaction(c -> {
+            try (PreparedStatement ps = c.prepareStatement("UPDATE solution_cache SET used_at=? WHERE fingerprint=?")) {
+                ps.setLong(1, System.currentTimeMillis());
+                ps.setString(2, fingerprint);
+                ps.executeUpdate();
+            }
+        });
+        return new SolutionCache.Entry(fingerprint, SchedulingResult.Status.valueOf(head.get(0)[0]),
+                Long.parseLong(head.get(0)[1]), "1".equals(head.get(0)[2]), readSessions("solution_sessions", "fingerprint", fingerprint, schedule));
+    }
+
+    // Most recently used entry solving the same settings for other data, else the same data under
+    // other settings; null when there is neither
+    public static String findNearestSolution(String dataHash, String settingsHash) {
+        List<String> found = queryList("SELECT fingerprint FROM solution_cache WHERE settings_hash=? OR data_hash=? " +
+                        "ORDER BY settings_hash=? DESC, used_at DESC LIMIT 1",
+                ps -> {
+                    ps.setString(1, settingsHash);
+                    ps.setString(2, dataHash);
+                    ps.setString(3, settingsHash);
+                },
+                rs -> rs.getString(1));
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    // Sessions stored one row per room, resolved against the schedule's current courses and rooms.
+    // Sessions whose course or any room no longer exists are left out; slots are not yet indexed.
+    private static List<ExamSession> readSessions(String table, String keyColumn, String key, Schedule schedule) {
+        Map<String, List<Classroom>> rooms = new LinkedHashMap<>();
+        Map<String, List<Integer>> seats = new HashMap<>();
+        Map<String, ExamSlot> slotOf = new HashMap<>();
+        Set<String> broken = new HashSet<>();
+        queryVoid("SELECT course_code, classroom_id, seats, date, start_time, end_time FROM " + table +
+                        " WHERE " + keyColumn + "=? ORDER BY course_code, position",
+                ps -> ps.setString(1, key),
+                rs -> {
+                    Classroom room = schedule.getClassroom(rs.getString(2));
+                    if (room == null || schedule.getCourse(rs.getString(1)) == null) {
+                        broken.add(rs.getString(1));
+                        return;
+                    }
+                    rooms.computeIfAbsent(rs.getString(1), k -> new ArrayList<>()).add(room);
+                    seats.computeIfAbsent(rs.getString(1), k -> new ArrayList<>()).add(rs.getInt(3));
+                    slotOf.putIfAbsent(rs.getString(1), new ExamSlot(LocalDate.parse(rs.getString(4)),
+                            LocalTime.parse(rs.getString(5)), LocalTime.parse(rs.getString(6))));
+                });
+
+        List<ExamSession> sessions = new ArrayList<>(rooms.size());
+        for (Map.Entry<String, List<Classroom>> e : rooms.entrySet()) {
+            if (broken.contains(e.getKey())) continue;
+            int[] n = seats.get(e.getKey()).stream().mapToInt(Integer::intValue).toArray();
+            sessions.add(new ExamSession(schedule.getCourse(e.getKey()), e.getValue(), n, slotOf.get(e.getKey())));
+        }
+        return sessions;
+    }
+
+    public static SlotCalendar loadSlotCalendar() {
+        String text = loadSetting("slot_calendar");
+        return text == null ? SlotCalendar.defaultCalendar() : SlotCalendar.parse(text);
+    }
+
+    public static void saveSlotCalendar(SlotCalendar calendar) {
+        saveSetting("slot_calendar", calendar.format());
+    }
+
+    public static String loadSetting(String key) {
+        List<String> values = queryList("SELECT value FROM settings WHERE key=?",
+                ps -> ps.setString(1, key),
+                rs -> rs.getString(1));
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    public static void saveSetting(String key, String value) {
+        inTransaction(c -> {
+            try (PreparedStatement ps = c.prepareStatement(
+                    "INSERT INTO settings(key, value) VALUES(?, ?) " +
+                            "ON CONFLICT(key) DO UPDATE SET value=excluded.value")) {
+                ps.setString(1, key);
+                ps.setString(2, value);
+                ps.executeUpdate();
+            }
+        });
     }
 
 
@@ -359,6 +920,7 @@ public final class DatabaseManager {
 
     private static void inTransaction(TxBody body) {
         init();
+        long t0 = SchedulerMetrics.start();
         try (Connection c = DriverManager.getConnection(DB_URL)) {
             c.setAutoCommit(false);
             try {
@@ -370,6 +932,11 @@ public final class DatabaseManager {
             }
         } catch (SQLException e) {
             throw new RuntimeException("DB transaction failed: " + e.getMessage(), e);
+        } finally {
+            if (t0 != 0L) {
+                SchedulerMetrics.increment(SchedulerMetrics.Counter.DB_TRANSACTIONS);
+                SchedulerMetrics.stop(SchedulerMetrics.Phase.DB_TRANSACTION, t0);
+            }
         }
     }
 
@@ -379,6 +946,7 @@ public final class DatabaseManager {
 
     private static <T> List<T> queryList(String sql, RowMapper<T> mapper) {
         init();
+        long t0 = SchedulerMetrics.start();
         try (Connection c = DriverManager.getConnection(DB_URL);
              PreparedStatement ps = c.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
@@ -387,11 +955,14 @@ public final class DatabaseManager {
             return out;
         } catch (SQLException e) {
             throw new RuntimeException("DB query failed: " + e.getMessage(), e);
+        } finally {
+            endQuery(t0);
         }
     }
 
     private static <T> List<T> queryList(String sql, PreparedBinder binder, RowMapper<T> mapper) {
         init();
+        long t0 = SchedulerMetrics.start();
         try (Connection c = DriverManager.getConnection(DB_URL);
              PreparedStatement ps = c.prepareStatement(sql)) {
             binder.bind(ps);
@@ -402,17 +973,44 @@ public final class DatabaseManager {
             }
         } catch (SQLException e) {
             throw new RuntimeException("DB query failed: " + e.getMessage(), e);
+        } finally {
+            endQuery(t0);
         }
     }
 
     private static void queryVoid(String sql, RowConsumer consumer) {
         init();
+        long t0 = SchedulerMetrics.start();
         try (Connection c = DriverManager.getConnection(DB_URL);
              PreparedStatement ps = c.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) consumer.accept(rs);
         } catch (SQLException e) {
             throw new RuntimeException("DB query failed: " + e.getMessage(), e);
+        } finally {
+            endQuery(t0);
         }
     }
+
+    private static void queryVoid(String sql, PreparedBinder binder, RowConsumer consumer) {
+        init();
+        long t0 = SchedulerMetrics.start();
+        try (Connection c = DriverManager.getConnection(DB_URL);
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            binder.bind(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) consumer.accept(rs);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("DB query failed: " + e.getMessage(), e);
+        } finally {
+            endQuery(t0);
+        }
+    }
+
+    private static void endQuery(long t0) {
+        if (t0 == 0L) return;
+        SchedulerMetrics.increment(SchedulerMetrics.Counter.DB_QUERIES);
+        SchedulerMetrics.stop(SchedulerMetrics.Phase.DB_QUERY, t0);
+    }
 }
@@ -0,0 +1,447 @@
+package org.example.se302_examscheduler;
+
+import org.sat4j.core.LiteralsUtils;
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.minisat.core.ICDCL;
+import org.sat4j.minisat.core.IPhaseSelectionStrategy;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.TimeoutException;
+
+import java.time.LocalDate;
+import java.util.*;
+
+// Exact mode: encodes the term as a SAT model (sat4j) and minimises the number of unscheduled
+// courses. The greedy result is the starting upper bound and the initial phase of every variable;
+// "at most K unscheduled" is then tightened until the solver proves K-1 impossible or time runs out.
+// Models one exclusive room per exam, so with room splitting or sharing enabled it returns the greedy result.
+// Seeded placements the greedy run kept (a warm start) are fixed in the model, so the search only moves
+// the other courses.
+public class ExactSchedulingEngine implements SchedulingEngine {
+
+    @Override
+    public SchedulingResult generate(Schedule schedule, LocalDate startDate, LocalDate endDate,
+                                     SchedulerConfig config) {
+        long deadline = config.getTimeBudgetMs() > 0
+                ? System.currentTimeMillis() + config.getTimeBudgetMs()
+                : Long.MAX_VALUE;
+
+        // Read before the greedy run replaces the timetable; the same seed it starts from
+        List<ExamSession> seed = !config.getSeed().isEmpty() || !config.isWarmStart()
+                ? config.getSeed()
+                : schedule.snapshot().getExamSessions();
+        SchedulingResult greedy = ExamSchedulerEngine.generateSchedule(schedule, startDate, endDate, config);
+        if (config.isAllowRoomSplitting() || config.isAllowRoomSharing()) return greedy;
+        if (greedy.getUnscheduledCourses().isEmpty()) {
+            SchedulingResult result = new SchedulingResult(greedy.getSessions(), greedy.getUnscheduledCourses(),
+                    false, SchedulingResult.Status.OPTIMAL);
+            result.setScore(greedy.getScore());
+            return result;
+        }
+
+        Model model = new Model(schedule, ExamSchedulerEngine.orderCourses(schedule.getCourses(), config.getStrategy()));
+        long t0 = SchedulerMetrics.start();
+        try {
+            List<ExamSession> kept = kept(seed, greedy.getSessions());
+            model.encode(kept.isEmpty());
+            model.pin(kept);
+            model.hint(greedy.getSessions());
+
+            int bound = greedy.getUnscheduledCourses().size();
+            int lowerBound = model.roomLowerBound();
+            int[] best = null;
+            boolean proven = false;
+            boolean timedOut = false;
+            try {
+                while (bound > lowerBound) {
+                    long left = deadline - System.currentTimeMillis();
+                    if (left <= 0) {
+                        timedOut = true;
+                        break;
+                    }
+                    model.solver.setTimeoutMs(Math.min(left, Integer.MAX_VALUE));
+                    model.solver.addAtMost(model.unplacedVars(), bound - 1);
+                    if (!model.solver.isSatisfiable()) {
+                        proven = true;
+                        break;
+                    }
+                    best = model.slotOfCourse();
+                    bound = model.unplacedCount(best);
+                    model.hint(best);
+                }
+                if (bound <= lowerBound) proven = true;
+            } catch (ContradictionException e) {
+                proven = true;
+            } catch (TimeoutException e) {
+                timedOut = true;
+            }
+
+            if (best != null) model.apply(best);
+            List<Course> unscheduled = best != null ? model.unscheduled(best) : greedy.getUnscheduledCourses();
+
+            SchedulingResult.Status status;
+            if (proven) {
+                status = unscheduled.isEmpty() ? SchedulingResult.Status.OPTIMAL : SchedulingResult.Status.INFEASIBLE;
+            } else {
+                status = SchedulingResult.Status.TIMEOUT;
+            }
+            SchedulingResult result = new SchedulingResult(schedule.snapshot().getExamSessions(), unscheduled,
+                    timedOut, status);
+            result.setScore(ScheduleScorer.score(schedule, config.getScoreWeights()));
+            return result;
+        } catch (ContradictionException e) {
+            // The constraints alone are contradictory: nothing beats the greedy result
+            SchedulingResult result = new SchedulingResult(greedy.getSessions(), greedy.getUnscheduledCourses(),
+                    false, SchedulingResult.Status.INFEASIBLE);
+            result.setScore(greedy.getScore());
+            return result;
+        } finally {
+            SchedulerMetrics.stop(SchedulerMetrics.Phase.EXACT_SOLVE, t0, schedule.getCourses().size());
+        }
+    }
+
+    // Greedy sessions still in the slot the seed gave them
+    private static List<ExamSession> kept(List<ExamSession> seed, List<ExamSession> placed) {
+        if (seed.isEmpty()) return List.of();
+        Map<Course, ExamSlot> was = new HashMap<>();
+        for (ExamSession s : seed) was.put(s.getCourse(), s.getSlot());
+        List<ExamSession> out = new ArrayList<>();
+        for (ExamSession s : placed) {
+            if (s.getSlot().equals(was.get(s.getCourse()))) out.add(s);
+        }
+        return out;
+    }
+
+    // Variables: x(c,s) course c in slot s, u(c) course c unscheduled, y(c,d) course c on day d.
+    private static final class Model {
+        final Schedule schedule;
+        final List<Course> courses;
+        final List<ExamSlot> slots;
+        final int nCourses;
+        final int nSlots;
+        final int nDays;
+        final int[] size;
+        final int[] capsDesc;
+        final List<List<Integer>> slotsOfDay = new ArrayList<>();
+        final ISolver solver = SolverFactory.newDefault();
+        final WarmStartPhases phases = new WarmStartPhases();
+
+        Model(Schedule schedule, List<Course> courses) {
+            this.schedule = schedule;
+            this.courses = courses;
+            this.slots = schedule.snapshot().getExamSlots();
+            this.nCourses = courses.size();
+            this.nSlots = slots.size();
+
+            int days = 0;
+            for (ExamSlot s : slots) days = Math.max(days, s.getDayIndex() + 1);
+            this.nDays = days;
+            for (int d = 0; d < nDays; d++) slotsOfDay.add(new ArrayList<>());
+            for (ExamSlot s : slots) slotsOfDay.get(s.getDayIndex()).add(s.getOrdinal());
+
+            this.size = new int[nCourses];
+            for (int c = 0; c < nCourses; c++) size[c] = courses.get(c).getStudents().size();
+            this.capsDesc = schedule.getClassrooms().stream()
+                    .mapToInt(Classroom::getCapacity)
+                    .map(v -> -v).sorted().map(v -> -v).toArray();
+
+            if (solver instanceof ICDCL<?> cdcl) cdcl.getOrder().setPhaseSelectionStrategy(phases);
+        }
+
+        int x(int c, int s) {
+            return 1 + c * nSlots + s;
+        }
+
+        int u(int c) {
+            return 1 + nCourses * nSlots + c;
+        }
+
+        int y(int c, int d) {
+            return 1 + nCourses * nSlots + nCourses + c * nDays + d;
+        }
+
+        // Rooms that can seat a course of the given size
+        int roomsFor(int need) {
+            int n = 0;
+            while (n < capsDesc.length && capsDesc[n] >= need) n++;
+            return n;
+        }
+
+        // Day symmetry may only be broken when no placement is fixed: fixed days are not interchangeable
+        void encode(boolean breakSymmetry) throws ContradictionException {
+            solver.newVar(nCourses * nSlots + nCourses + nCourses * nDays);
+
+            for (int c = 0; c < nCourses; c++) {
+                if (roomsFor(size[c]) == 0) {
+                    solver.addClause(new VecInt(new int[]{u(c)}));
+                    for (int s = 0; s < nSlots; s++) solver.addClause(new VecInt(new int[]{-x(c, s)}));
+                    continue;
+                }
+                IVecInt any = new VecInt(nSlots + 1);
+                IVecInt one = new VecInt(nSlots);
+                for (int s = 0; s < nSlots; s++) {
+                    any.push(x(c, s));
+                    one.push(x(c, s));
+                    solver.addClause(new VecInt(new int[]{-x(c, s), y(c, slots.get(s).getDayIndex())}));
+                }
+                any.push(u(c));
+                solver.addClause(any);
+                solver.addAtMost(one, 1);
+            }
+
+            encodeStudents();
+            encodeRooms();
+            if (breakSymmetry) breakDaySymmetry();
+        }
+
+        // Unit clauses holding these sessions' courses in their slots
+        void pin(List<ExamSession> sessions) throws ContradictionException {
+            Map<Course, Integer> index = new HashMap<>();
+            for (int c = 0; c < nCourses; c++) index.put(courses.get(c), c);
+            for (ExamSession es : sessions) {
+                Integer c = index.get(es.getCourse());
+                if (c != null) solver.addClause(new VecInt(new int[]{x(c, es.getSlot().getOrdinal())}));
+            }
+        }
+
+        // One constraint set per distinct enrolment, not per student.
+        private void encodeStudents() throws ContradictionException {
+            Map<Course, Integer> index = new HashMap<>();
+            for (int c = 0; c < nCourses; c++) index.put(courses.get(c), c);
+
+            Set<List<Integer>> enrolments = new HashSet<>();
+            for (Student st : schedule.getStudents()) {
+                List<Integer> set = new ArrayList<>();
+                for (Course course : st.getCourses()) {
+                    Integer c = index.get(course);
+                    if (c != null && !set.contains(c)) set.add(c);
+                }
+                if (set.size() < 2) continue;
+                Collections.sort(set);
+                enrolments.add(set);
+            }
+
+            for (List<Integer> set : enrolments) {
+                for (int d = 0; d < nDays; d++) {
+                    List<Integer> daySlots = slotsOfDay.get(d);
+                    if (daySlots.size() == 1) {
+                        solver.addAtMost(lits(set, daySlots.get(0), -1), 1);
+                    }
+                    // Two adjacent periods hold at most one of these exams: covers clashes and back-to-back
+                    for (int i = 0; i + 1 < daySlots.size(); i++) {
+                        int a = daySlots.get(i);
+                        int b = daySlots.get(i + 1);
+                        if (slots.get(a).isConsecutiveWith(slots.get(b))) {
+                            solver.addAtMost(lits(set, a, b), 1);
+                        } else {
+                            solver.addAtMost(lits(set, a, -1), 1);
+                            solver.addAtMost(lits(set, b, -1), 1);
+                        }
+                    }
+                    if (set.size() > 2) {
+                        IVecInt perDay = new VecInt(set.size());
+                        for (int c : set) perDay.push(y(c, d));
+                        solver.addAtMost(perDay, 2);
+                    }
+                }
+            }
+        }
+
+        private IVecInt lits(List<Integer> set, int slotA, int slotB) {
+            IVecInt v = new VecInt(set.size() * 2);
+            for (int c : set) {
+                v.push(x(c, slotA));
+                if (slotB >= 0) v.push(x(c, slotB));
+            }
+            return v;
+        }
+
+        // Room capacities are nested, so a slot can seat its courses iff for every size threshold
+        // the courses at least that large do not outnumber the rooms at least that large.
+        private void encodeRooms() throws ContradictionException {
+            Integer[] bySizeDesc = new Integer[nCourses];
+            for (int c = 0; c < nCourses; c++) bySizeDesc[c] = c;
+            Arrays.sort(bySizeDesc, (a, b) -> Integer.compare(size[b], size[a]));
+
+            for (int s = 0; s < nSlots; s++) {
+                List<Integer> group = new ArrayList<>();
+                for (int i = 0; i < nCourses; i++) {
+                    int c = bySizeDesc[i];
+                    int rooms = roomsFor(size[c]);
+                    if (rooms == 0) continue;
+                    group.add(c);
+                    boolean lastOfLevel = i + 1 == nCourses || roomsFor(size[bySizeDesc[i + 1]]) != rooms;
+                    if (lastOfLevel && group.size() > rooms) {
+                        IVecInt v = new VecInt(group.size());
+                        for (int g : group) v.push(x(g, s));
+                        solver.addAtMost(v, rooms);
+                    }
+                }
+            }
+        }
+
+        // Unscheduled courses forced by room counts alone: at each size level, courses beyond
+        // rooms x slots cannot all be seated. Lets the search stop without a (slow) counting proof.
+        int roomLowerBound() {
+            int[] levels = new int[capsDesc.length + 1];
+            for (int c = 0; c < nCourses; c++) levels[roomsFor(size[c])]++;
+            int bound = levels[0];
+            int courses = 0;
+            for (int k = 1; k <= capsDesc.length; k++) {
+                courses += levels[k];
+                bound = Math.max(bound, levels[0] + courses - k * nSlots);
+            }
+            return bound;
+        }
+
+        // Days with the same number of periods are interchangeable, so the i-th course in
+        // placement order only needs the first i+1 days of its kind.
+        private void breakDaySymmetry() throws ContradictionException {
+            Map<Integer, List<Integer>> daysByShape = new HashMap<>();
+            for (int d = 0; d < nDays; d++) {
+                daysByShape.computeIfAbsent(slotsOfDay.get(d).size(), k -> new ArrayList<>()).add(d);
+            }
+            for (List<Integer> days : daysByShape.values()) {
+                for (int c = 0; c < nCourses && c + 1 < days.size(); c++) {
+                    for (int rank = c + 1; rank < days.size(); rank++) {
+                        for (int s : slotsOfDay.get(days.get(rank))) {
+                            solver.addClause(new VecInt(new int[]{-x(c, s)}));
+                        }
+                    }
+                }
+            }
+        }
+
+        IVecInt unplacedVars() {
+            IVecInt v = new VecInt(nCourses);
+            for (int c = 0; c < nCourses; c++) v.push(u(c));
+            return v;
+        }
+
+        // Slot ordinal per course index, -1 when unplaced
+        int[] slotOfCourse() {
+            int[] slotOf = new int[nCourses];
+            Arrays.fill(slotOf, -1);
+            for (int c = 0; c < nCourses; c++) {
+                for (int s = 0; s < nSlots; s++) {
+                    if (solver.model(x(c, s))) {
+                        slotOf[c] = s;
+                        break;
+                    }
+                }
+            }
+            return slotOf;
+        }
+
+        int unplacedCount(int[] slotOf) {
+            int n = 0;
+            for (int s : slotOf) if (s < 0) n++;
+            return n;
+        }
+
+        List<Course> unscheduled(int[] slotOf) {
+            List<Course> out = new ArrayList<>();
+            for (int c = 0; c < nCourses; c++) if (slotOf[c] < 0) out.add(courses.get(c));
+            return out;
+        }
+
+        void hint(List<ExamSession> sessions) {
+            int[] slotOf = new int[nCourses];
+            Arrays.fill(slotOf, -1);
+            Map<Course, Integer> index = new HashMap<>();
+            for (int c = 0; c < nCourses; c++) index.put(courses.get(c), c);
+            for (ExamSession es : sessions) {
+                Integer c = index.get(es.getCourse());
+                if (c != null) slotOf[c] = es.getSlot().getOrdinal();
+            }
+            hint(slotOf);
+        }
+
+        void hint(int[] slotOf) {
+            phases.clear();
+            for (int c = 0; c < nCourses; c++) {
+                if (slotOf[c] >= 0) {
+                    phases.prefer(x(c, slotOf[c]));
+                    phases.prefer(y(c, slots.get(slotOf[c]).getDayIndex()));
+                } else {
+                    phases.prefer(u(c));
+                }
+            }
+        }
+
+        // Rebuilds the sessions; largest course first takes the smallest free room that fits.
+        void apply(int[] slotOf) {
+            List<ExamSession> sessions = new ArrayList<>();
+
+            List<Classroom> rooms = new ArrayList<>(schedule.getClassrooms());
+            rooms.sort(Comparator.comparingInt(Classroom::getCapacity));
+            List<List<Integer>> bySlot = new ArrayList<>();
+            for (int s = 0; s < nSlots; s++) bySlot.add(new ArrayList<>());
+            for (int c = 0; c < nCourses; c++) if (slotOf[c] >= 0) bySlot.get(slotOf[c]).add(c);
+
+            for (int s = 0; s < nSlots; s++) {
+                List<Integer> inSlot = bySlot.get(s);
+                inSlot.sort((a, b) -> Integer.compare(size[b], size[a]));
+                boolean[] used = new boolean[rooms.size()];
+                for (int c : inSlot) {
+                    for (int r = 0; r < rooms.size(); r++) {
+                        if (used[r] || rooms.get(r).getCapacity() < size[c]) continue;
+                        used[r] = true;
+                        sessions.add(new ExamSession(courses.get(c), rooms.get(r), slots.get(s)));
+                        break;
+                    }
+                }
+            }
+            schedule.commit(slots, sessions, false);
+        }
+    }
+
+    // Phase saving that starts from the best known timetable instead of all-false.
+    private static final class WarmStartPhases implements IPhaseSelectionStrategy {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Set<Integer> preferred = new HashSet<>();
+        private int[] phase = new int[0];
+
+        void clear() {
+            preferred.clear();
+        }
+
+        void prefer(int var) {
+            preferred.add(var);
+        }
+
+        @Override
+        public void init(int nlength) {
+            if (phase.length < nlength) phase = new int[nlength];
+            for (int v = 1; v < nlength; v++) {
+                phase[v] = preferred.contains(v) ? LiteralsUtils.posLit(v) : LiteralsUtils.negLit(v);
+            }
+        }
+
+        @Override
+        public void init(int var, int p) {
+            phase[var] = p;
+        }
+
+        @Override
+        public void assignLiteral(int p) {
+            phase[LiteralsUtils.var(p)] = p;
+        }
+
+        @Override
+        public int select(int var) {
+            return phase[var];
+        }
+
+        @Override
+        public void updateVar(int p) {
+        }
+
+        @Override
+        public void updateVarAtDecisionLevel(int q) {
+        }
+    }
+}
@@ -0,0 +1,496 @@
+package org.example.se302_examscheduler;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Headless entry point for batch runs; never loads any JavaFX class.
+public final class ExamSchedulerCli {
+
+    private static final String USAGE = """
+            Usage: ExamSchedulerCli --classrooms FILE --courses FILE --students FILE --attendance FILE
+                                    --start YYYY-MM-DD --end YYYY-MM-DD
+                                    [--engine greedy|exact] [--strategy largest-first|most-constrained-first]
+                                    [--budget-ms N] [--weights sameDay=5,adjacentDays=2,...]
+                                    [--calendar FILE] [--out FILE] [--format csv|pdf|columnar] [--view course|classroom|student|day]
+                                    [--split-rooms] [--share-rooms] [--save-db] [--metrics] [--check] [--sequential]
+                                    [--cache] [--warm-start]
+                                    [--personal-zip FILE] [--personal-formats pdf,ics] [--threads N]
+                   ExamSchedulerCli --classrooms FILE --courses FILE --students FILE --attendance FILE
+                                    --scenarios "name:START:END[:exclude=ROOM+ROOM;engine=exact;split;share]|..."
+                                    [--calendar FILE] [--save-db]
+                   ExamSchedulerCli --classrooms FILE --courses FILE --students FILE --attendance FILE
+                                    --sweep-starts YYYY-MM-DD,... --sweep-ends FIRST..LAST
+                                    [--sweep-rooms "name=ROOM+ROOM|name=..."] [--sweep-strategies S,S]
+                                    [--threads N] [--calendar FILE] [--full-sweep]
+                   ExamSchedulerCli --history [--diff FROM..TO]
+            """;
+
+    private ExamSchedulerCli() {}
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    static int run(String[] args) {
+        Map<String, String> opts;
+        try {
+            opts = parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(USAGE);
+            return 2;
+        }
+
+        if (opts.containsKey("scenarios")) return runScenarios(opts);
+        if (opts.containsKey("sweep-ends")) return runSweep(opts);
+        if (opts.containsKey("history")) return runHistory(opts);
+
+        for (String required : new String[]{"classrooms", "courses", "students", "attendance", "start", "end"}) {
+            if (!opts.containsKey(required)) {
+                System.err.println("Missing --" + required);
+                System.err.print(USAGE);
+                return 2;
+            }
+        }
+
+        SchedulerConfig config = new SchedulerConfig();
+        LocalDate start;
+        LocalDate end;
+        String format = opts.getOrDefault("format", "csv").toLowerCase(Locale.ROOT);
+        String view;
+        Set<PersonalTimetables.Format> personalFormats;
+        try {
+            start = LocalDate.parse(opts.get("start"));
+            end = LocalDate.parse(opts.get("end"));
+            config.setEngine(SchedulerConfig.Engine.valueOf(
+                    opts.getOrDefault("engine", "greedy").trim().toUpperCase(Locale.ROOT)));
+            config.setStrategy(parseStrategy(opts.getOrDefault("strategy", "largest-first")));
+            config.setTimeBudgetMs(Long.parseLong(opts.getOrDefault("budget-ms", "0")));
+            config.setScoreWeights(ScoreWeights.parse(opts.get("weights")));
+            config.setAllowRoomSplitting(opts.containsKey("split-rooms"));
+            config.setParallelComponents(!opts.containsKey("sequential"));
+            config.setAllowRoomSharing(opts.containsKey("share-rooms"));
+            view = parseView(opts.getOrDefault("view", "course"));
+            personalFormats = PersonalTimetables.parseFormats(opts.getOrDefault("personal-formats", "pdf,ics"));
+            if (opts.containsKey("calendar")) {
+                config.setCalendar(SlotCalendar.parse(Files.readString(Path.of(opts.get("calendar")))));
+            }
+            if (!format.equals("csv") && !format.equals("pdf") && !format.equals("columnar")) {
+                throw new IllegalArgumentException("Unknown format: " + format);
+            }
+        } catch (RuntimeException | IOException e) {
+            System.err.println("Invalid argument: " + e.getMessage());
+            System.err.print(USAGE);
+            return 2;
+        }
+        if (end.isBefore(start)) {
+            System.err.println("End date cannot be before start date.");
+            return 2;
+        }
+
+        boolean saveDb = opts.containsKey("save-db");
+        if (opts.containsKey("metrics")) SchedulerMetrics.setEnabled(true);
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        Schedule schedule = new Schedule();
+
+        try {
+            long t0 = System.nanoTime();
+            // Read before the import, which replaces the saved data and timetable
+            List<ExamSession> previous = List.of();
+            if (opts.containsKey("warm-start")) {
+                Schedule saved = new Schedule();
+                DatabaseManager.loadIntoSchedule(saved);
+                previous = saved.getExamSessions();
+                config.setSeed(previous);
+            }
+            File classrooms = new File(opts.get("classrooms"));
+            File courses = new File(opts.get("courses"));
+            File students = new File(opts.get("students"));
+            File attendance = new File(opts.get("attendance"));
+            if (saveDb) {
+                DataImporter.importClassrooms(classrooms, schedule);
+                DataImporter.importCourses(courses, schedule);
+                DataImporter.importStudents(students, schedule);
+                DataImporter.importAttendance(attendance, schedule);
+            } else {
+                DataImporter.readClassrooms(classrooms, schedule);
+                DataImporter.readCourses(courses, schedule);
+                DataImporter.readStudents(students, schedule);
+                DataImporter.readAttendance(attendance, schedule);
+            }
+            long t1 = System.nanoTime();
+
+            FeasibilityAnalyzer.Report check = FeasibilityAnalyzer.analyze(schedule, start, end, config);
+            if (opts.containsKey("check")) {
+                metrics.put("status", "ok");
+                metrics.put("feasible", check.isFeasible());
+                putCheck(metrics, check);
+                metrics.put("importMs", millis(t0, t1));
+                metrics.put("checkMs", millis(t1, System.nanoTime()));
+                System.out.println(toJson(metrics));
+                return check.isFeasible() ? 0 : 1;
+            }
+            t1 = System.nanoTime();
+
+            SolutionCache.Outcome cached = opts.containsKey("cache")
+                    ? SolutionCache.generate(schedule, start, end, config)
+                    : null;
+            SchedulingResult result = cached != null
+                    ? cached.getResult()
+                    : SchedulingEngine.forConfig(config).generate(schedule, start, end, config);
+            long t2 = System.nanoTime();
+
+            ScheduleValidator.ValidationResult vr = ScheduleValidator.validate(schedule);
+            long t3 = System.nanoTime();
+
+            if (saveDb) {
+                DatabaseManager.saveExamSessions(schedule);
+            }
+            String out = opts.get("out");
+            if (out != null) {
+                if (format.equals("pdf")) {
+                    ScheduleExporter.exportToPdf(schedule, new File(out), view);
+                } else if (format.equals("columnar")) {
+                    ColumnarExport.write(schedule.snapshot(), new File(out));
+                } else {
+                    ScheduleExporter.exportToCsv(schedule, new File(out), view);
+                }
+            }
+            String personal = opts.get("personal-zip");
+            int personalFiles = 0;
+            if (personal != null) {
+                int threads = opts.containsKey("threads")
+                        ? Integer.parseInt(opts.get("threads"))
+                        : Runtime.getRuntime().availableProcessors();
+                try (OutputStream zip = new BufferedOutputStream(new FileOutputStream(personal))) {
+                    personalFiles = PersonalTimetables.exportZip(schedule.snapshot(), zip, personalFormats, threads);
+                }
+            }
+            long t4 = System.nanoTime();
+
+            metrics.put("status", "ok");
+            metrics.put("engine", config.getEngine().name());
+            metrics.put("strategy", config.getStrategy().name());
+            metrics.put("budgetMs", config.getTimeBudgetMs());
+            metrics.put("courses", schedule.getCourses().size());
+            metrics.put("students", schedule.getStudents().size());
+            metrics.put("classrooms", schedule.getClassrooms().size());
+            metrics.put("slots", schedule.getExamSlots().size());
+            metrics.put("sessions", result.getSessions().size());
+            metrics.put("unscheduled", result.getUnscheduledCourses().size());
+            metrics.put("timedOut", result.isTimedOut());
+            metrics.put("result", result.getStatus().name());
+            metrics.put("score", result.getScore());
+            if (opts.containsKey("warm-start")) {
+                metrics.put("previousSessions", previous.size());
+                metrics.put("keptDates", ExamSchedulerEngine.keptDates(previous, result.getSessions()));
+            }
+            if (cached != null) {
+                metrics.put("cache", cached.getHit().name());
+                metrics.put("seeded", cached.getSeeded());
+            }
+            if (personal != null) metrics.put("personalFiles", personalFiles);
+            putCheck(metrics, check);
+            metrics.put("issues", vr.getIssues());
+            metrics.put("importMs", millis(t0, t1));
+            metrics.put("generateMs", millis(t1, t2));
+            metrics.put("validateMs", millis(t2, t3));
+            metrics.put("exportMs", millis(t3, t4));
+            metrics.put("totalMs", millis(t0, t4));
+            if (SchedulerMetrics.isEnabled()) {
+                SchedulerMetrics.counters().forEach(metrics::put);
+            }
+            System.out.println(toJson(metrics));
+
+            return result.getUnscheduledCourses().isEmpty() && vr.getIssues() == 0 ? 0 : 1;
+        } catch (Exception e) {
+            metrics.put("status", "error");
+            metrics.put("error", e.toString());
+            System.out.println(toJson(metrics));
+            return 3;
+        }
+    }
+
+    // Generates every scenario concurrently over one import; prints one JSON line per scenario
+    private static int runScenarios(Map<String, String> opts) {
+        for (String required : new String[]{"classrooms", "courses", "students", "attendance"}) {
+            if (!opts.containsKey(required)) {
+                System.err.println("Missing --" + required);
+                System.err.print(USAGE);
+                return 2;
+            }
+        }
+        List<Scenario> scenarios = new ArrayList<>();
+        SlotCalendar calendar;
+        try {
+            for (String spec : opts.get("scenarios").split("\\|")) {
+                if (!spec.isBlank()) scenarios.add(Scenario.parse(spec));
+            }
+            calendar = opts.containsKey("calendar")
+                    ? SlotCalendar.parse(Files.readString(Path.of(opts.get("calendar"))))
+                    : SlotCalendar.defaultCalendar();
+        } catch (RuntimeException | IOException e) {
+            System.err.println("Invalid argument: " + e.getMessage());
+            System.err.print(USAGE);
+            return 2;
+        }
+
+        boolean saveDb = opts.containsKey("save-db");
+        Schedule schedule = new Schedule();
+        try {
+            File classrooms = new File(opts.get("classrooms"));
+            File courses = new File(opts.get("courses"));
+            File students = new File(opts.get("students"));
+            File attendance = new File(opts.get("attendance"));
+            if (saveDb) {
+                DataImporter.importClassrooms(classrooms, schedule);
+                DataImporter.importCourses(courses, schedule);
+                DataImporter.importStudents(students, schedule);
+                DataImporter.importAttendance(attendance, schedule);
+            } else {
+                DataImporter.readClassrooms(classrooms, schedule);
+                DataImporter.readCourses(courses, schedule);
+                DataImporter.readStudents(students, schedule);
+                DataImporter.readAttendance(attendance, schedule);
+            }
+
+            long t0 = System.nanoTime();
+            List<ScenarioRunner.Outcome> outcomes = ScenarioRunner.runAll(schedule.snapshot(), scenarios, calendar);
+            double wallMs = millis(t0, System.nanoTime());
+
+            boolean allPlaced = true;
+            for (ScenarioRunner.Outcome o : outcomes) {
+                if (saveDb) {
+                    DatabaseManager.saveScenario(o.getScenario());
+                    DatabaseManager.saveScenarioSessions(o.getScenario().getName(), o.getSchedule().getExamSessions());
+                }
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("scenario", o.getScenario().getName());
+                row.put("start", o.getScenario().getStart().toString());
+                row.put("end", o.getScenario().getEnd().toString());
+                row.put("options", o.getScenario().formatOptions());
+                row.put("classrooms", o.getRooms());
+                row.put("sessions", o.getResult().getSessions().size());
+                row.put("unscheduled", o.getResult().getUnscheduledCourses().size());
+                row.put("result", o.getResult().getStatus().name());
+                row.put("examDays", o.getExamDays());
+                row.put("score", o.getResult().getScore());
+                row.put("issues", o.getIssues());
+                row.put("generateMs", Math.round(o.getMillis() * 100) / 100.0);
+                row.put("wallMs", wallMs);
+                System.out.println(toJson(row));
+                allPlaced &= o.getResult().getUnscheduledCourses().isEmpty() && o.getIssues() == 0;
+            }
+            return allPlaced ? 0 : 1;
+        } catch (Exception e) {
+            Map<String, Object> error = new LinkedHashMap<>();
+            error.put("status", "error");
+            error.put("error", e.toString());
+            System.out.println(toJson(error));
+            return 3;
+        }
+    }
+
+    // Lists the published versions, or with --diff one JSON line per change between two of them
+    private static int runHistory(Map<String, String> opts) {
+        try {
+            String diff = opts.get("diff");
+            if (diff == null) {
+                for (ScheduleHistory.Info v : DatabaseManager.listScheduleVersions()) {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("version", v.getNumber());
+                    row.put("publishedAt", Instant.ofEpochMilli(v.getPublishedAt()).toString());
+                    row.put("sessions", v.getSessions());
+                    row.put("changes", v.getChanges());
+                    System.out.println(toJson(row));
+                }
+                return 0;
+            }
+            String[] range = diff.split("\\.\\.");
+            if (range.length != 2) throw new IllegalArgumentException("--diff needs FROM..TO, got " + diff);
+            long t0 = System.nanoTime();
+            List<ScheduleHistory.Change> changes = ScheduleHistory.diff(Integer.parseInt(range[0].trim()),
+                    Integer.parseInt(range[1].trim()));
+            long t1 = System.nanoTime();
+            for (ScheduleHistory.Change c : changes) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("course", c.getCourse());
+                row.put("change", c.getKind().name());
+                if (c.getBefore() != null) row.put("before", c.getBefore());
+                if (c.getAfter() != null) row.put("after", c.getAfter());
+                System.out.println(toJson(row));
+            }
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("status", "ok");
+            summary.put("summary", ScheduleHistory.summary(changes));
+            summary.put("diffMs", millis(t0, t1));
+            System.out.println(toJson(summary));
+            return 0;
+        } catch (RuntimeException e) {
+            System.err.println("History failed: " + e.getMessage());
+            return 2;
+        }
+    }
+
+    // Generates every start/end/room set/strategy combination; prints one JSON line per combination
+    private static int runSweep(Map<String, String> opts) {
+        for (String required : new String[]{"classrooms", "courses", "students", "attendance", "sweep-starts"}) {
+            if (!opts.containsKey(required)) {
+                System.err.println("Missing --" + required);
+                System.err.print(USAGE);
+                return 2;
+            }
+        }
+        ParameterSweep sweep = new ParameterSweep();
+        try {
+            for (String d : opts.get("sweep-starts").split(",")) {
+                if (!d.isBlank()) sweep.addStart(LocalDate.parse(d.trim()));
+            }
+            String[] ends = opts.get("sweep-ends").split("\\.\\.", 2);
+            LocalDate firstEnd = LocalDate.parse(ends[0].trim());
+            sweep.addEnds(firstEnd, ends.length == 2 ? LocalDate.parse(ends[1].trim()) : firstEnd);
+            if (opts.containsKey("sweep-rooms")) {
+                for (String set : opts.get("sweep-rooms").split("\\|")) {
+                    if (set.isBlank()) continue;
+                    String[] kv = set.split("=", 2);
+                    Set<String> excluded = new TreeSet<>();
+                    if (kv.length == 2) {
+                        for (String room : kv[1].split("\\+")) {
+                            if (!room.isBlank()) excluded.add(room.trim());
+                        }
+                    }
+                    sweep.addRoomSet(kv[0].trim(), excluded);
+                }
+            }
+            if (opts.containsKey("sweep-strategies")) {
+                for (String st : opts.get("sweep-strategies").split(",")) {
+                    if (!st.isBlank()) sweep.addStrategy(parseStrategy(st));
+                }
+            }
+            if (opts.containsKey("threads")) sweep.setThreads(Integer.parseInt(opts.get("threads")));
+            if (opts.containsKey("calendar")) {
+                sweep.setCalendar(SlotCalendar.parse(Files.readString(Path.of(opts.get("calendar")))));
+            }
+            sweep.setStopAtMinimal(!opts.containsKey("full-sweep"));
+        } catch (RuntimeException | IOException e) {
+            System.err.println("Invalid argument: " + e.getMessage());
+            System.err.print(USAGE);
+            return 2;
+        }
+
+        Schedule schedule = new Schedule();
+        try {
+            DataImporter.readClassrooms(new File(opts.get("classrooms")), schedule);
+            DataImporter.readCourses(new File(opts.get("courses")), schedule);
+            DataImporter.readStudents(new File(opts.get("students")), schedule);
+            DataImporter.readAttendance(new File(opts.get("attendance")), schedule);
+
+            long t0 = System.nanoTime();
+            List<ParameterSweep.Row> rows = sweep.run(schedule.snapshot());
+            double wallMs = millis(t0, System.nanoTime());
+
+            boolean anyComplete = false;
+            for (ParameterSweep.Row r : rows) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("rooms", r.getRooms());
+                row.put("strategy", r.getStrategy().name());
+                row.put("start", r.getStart().toString());
+                row.put("end", r.getEnd().toString());
+                row.put("examDays", r.getExamDays());
+                row.put("status", r.getStatus().name());
+                if (r.getStatus() == ParameterSweep.Status.DONE) {
+                    row.put("sessions", r.getSessions());
+                    row.put("unscheduled", r.getUnscheduled());
+                    row.put("score", r.getScore());
+                    row.put("generateMs", Math.round(r.getMillis() * 100) / 100.0);
+                }
+                row.put("wallMs", wallMs);
+                System.out.println(toJson(row));
+                anyComplete |= r.isComplete();
+            }
+            return anyComplete ? 0 : 1;
+        } catch (Exception e) {
+            Map<String, Object> error = new LinkedHashMap<>();
+            error.put("status", "error");
+            error.put("error", e.toString());
+            System.out.println(toJson(error));
+            return 3;
+        }
+    }
+
+    private static void putCheck(Map<String, Object> metrics, FeasibilityAnalyzer.Report check) {
+        metrics.put("availableDays", check.getAvailableDays());
+        metrics.put("minDays", check.getMinDays());
+        metrics.put("cliqueSize", check.getClique().size());
+        metrics.put("maxStudentLoad", check.getMaxStudentLoad());
+        metrics.put("neverFit", check.getNeverFit().size());
+        if (check.getEarliestEnd() != null) metrics.put("earliestEnd", check.getEarliestEnd().toString());
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            if (!a.startsWith("--")) throw new IllegalArgumentException("Unexpected argument: " + a);
+            String key = a.substring(2);
+            if (key.equals("save-db") || key.equals("metrics") || key.equals("split-rooms")
+                    || key.equals("share-rooms") || key.equals("check")
+                    || key.equals("sequential") || key.equals("full-sweep") || key.equals("cache") || key.equals("warm-start")
+                    || key.equals("history")) {
+                opts.put(key, "true");
+                continue;
+            }
+            if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + a);
+            opts.put(key, args[++i]);
+        }
+        return opts;
+    }
+
+    private static SchedulerConfig.Strategy parseStrategy(String s) {
+        return SchedulerConfig.Strategy.valueOf(s.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+
+    private static String parseView(String v) {
+        return switch (v.trim().toLowerCase(Locale.ROOT)) {
+            case "course" -> "Course-based";
+            case "classroom" -> "By Classroom";
+            case "student" -> "By Student";
+            case "day" -> "By Day";
+            default -> throw new IllegalArgumentException("Unknown view: " + v);
+        };
+    }
+
+    private static double millis(long from, long to) {
+        return Math.round((to - from) / 10_000.0) / 100.0;
+    }
+
+    private static String toJson(Map<String, Object> values) {
+        StringBuilder sb = new StringBuilder("{");
+        for (Map.Entry<String, Object> e : values.entrySet()) {
+            if (sb.length() > 1) sb.append(',');
+            sb.append('"').append(e.getKey()).append("\":");
+            Object v = e.getValue();
+            if (v instanceof Number || v instanceof Boolean) {
+                sb.append(v);
+            } else {
+                sb.append('"').append(String.valueOf(v).replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+            }
+        }
+        return sb.append('}').toString();
+    }
+}
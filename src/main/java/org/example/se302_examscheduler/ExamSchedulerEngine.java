@@ -1,141 +1,244 @@
 package org.example.se302_examscheduler;
 
 import java.time.LocalDate;
-import java.time.LocalTime;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
-public class ExamSchedulerEngine {
+import java.util.*;
+import java.util.stream.IntStream;
+
+public class ExamSchedulerEngine implements SchedulingEngine {
+
+    @Override
+    public SchedulingResult generate(Schedule schedule, LocalDate startDate, LocalDate endDate,
+                                     SchedulerConfig config) {
+        return generateSchedule(schedule, startDate, endDate, config);
+    }
+
     public static SchedulingResult generateSchedule(Schedule schedule,
                                                     LocalDate startDate,
                                                     LocalDate endDate) {
-        schedule.getExamSlots().clear();
-        schedule.getExamSessions().clear();
+        return generateSchedule(schedule, startDate, endDate, new SchedulerConfig());
+    }
 
-        List<ExamSlot> slots = generateSlots(startDate, endDate);
-        schedule.getExamSlots().addAll(slots);
+    public static SchedulingResult generateSchedule(Schedule schedule,
+                                                    LocalDate startDate,
+                                                    LocalDate endDate,
+                                                    SchedulerConfig config) {
+        long runStart = SchedulerMetrics.start();
+        long deadline = config.getTimeBudgetMs() > 0
+                ? System.nanoTime() + config.getTimeBudgetMs() * 1_000_000L
+                : Long.MAX_VALUE;
+
+        // Built off to the side and committed at the end; readers keep the previous snapshot meanwhile.
+        // Courses, rooms and rosters are read live, so callers must not edit the schedule until this returns.
+        List<ExamSlot> slots = config.getCalendar().generateSlots(startDate, endDate);
+        List<Classroom> classrooms = List.copyOf(schedule.getClassrooms());
+        boolean sharing = config.isAllowRoomSharing();
+        RoomReservations rooms = new RoomReservations(slots.size(), classrooms, sharing);
+
+        // Components share no students, so only the room reservations are contended
+        List<List<Course>> components = config.isParallelComponents()
+                ? schedule.courseComponents()
+                : List.of(List.copyOf(schedule.getCourses()));
+        List<Run> runs = new ArrayList<>(components.size());
+        for (int i = 0; i < components.size(); i++) runs.add(new Run(new PlacementState(slots, rooms)));
+
+        // Seeded placements go in before any search, so no new course can take their rooms
+        List<ExamSession> seed = !config.getSeed().isEmpty() || !config.isWarmStart()
+                ? config.getSeed()
+                : schedule.snapshot().getExamSessions();
+        if (!seed.isEmpty()) {
+            Map<String, ExamSession> seedByCode = new HashMap<>();
+            for (ExamSession s : seed) seedByCode.put(s.getCourse().getCode(), s);
+            Map<ExamSlot, ExamSlot> slotOf = new HashMap<>();
+            for (ExamSlot s : slots) slotOf.put(s, s);
+            Map<String, Integer> roomOf = new HashMap<>();
+            for (int i = 0; i < classrooms.size(); i++) roomOf.put(classrooms.get(i).getName(), i);
+            for (int i = 0; i < components.size(); i++) {
+                keepSeeds(components.get(i), runs.get(i), seedByCode, slotOf, roomOf, classrooms, config);
+            }
+        }
 
-        List<Course> courses = new ArrayList<>(schedule.getCourses());
-        courses.sort(Comparator.comparingInt((Course c) -> c.getStudents().size()).reversed());
+        (components.size() > 1 ? IntStream.range(0, components.size()).parallel() : IntStream.range(0, components.size()))
+                .forEach(i -> scheduleCourses(components.get(i), runs.get(i), slots, classrooms, rooms, config, deadline));
 
+        List<ExamSession> sessions = new ArrayList<>();
         List<Course> unscheduled = new ArrayList<>();
-        List<Classroom> classrooms = schedule.getClassrooms();
-
-        int nextRoomIndex = 0;
-
-        for (Course course : courses) {
-            boolean placed = false;
-            int neededCapacity = course.getStudents().size();
-
-            for (ExamSlot slot : slots) {
-                if (placed) break;
-
-                for (int offset = 0; offset < classrooms.size(); offset++) {
-                    int idx = (nextRoomIndex + offset) % classrooms.size();
-                    Classroom room = classrooms.get(idx);
-
-                    if (room.getCapacity() >= neededCapacity
-                            && isClassroomFreeAtSlot(schedule, room, slot)
-                            && !hasConflict(schedule, course, slot)
-                            && !violatesStudentConstraints(schedule, course, slot)) {
-
-                        ExamSession session = new ExamSession(course, room, slot);
-                        schedule.getExamSessions().add(session);
-                        course.setExamSession(session);
-
-                        nextRoomIndex = (idx + 1) % classrooms.size();
-                        placed = true;
-                        break;
-                    }
-                }
-            }
-
-            if (!placed) unscheduled.add(course);
+        boolean timedOut = false;
+        for (Run run : runs) {
+            sessions.addAll(run.sessions);
+            unscheduled.addAll(run.unscheduled);
+            timedOut |= run.timedOut;
         }
+        ScheduleSnapshot snapshot = schedule.commit(slots, sessions, sharing);
 
-        return new SchedulingResult(schedule.getExamSessions(), unscheduled);
+        SchedulerMetrics.stop(SchedulerMetrics.Phase.GENERATE, runStart, snapshot.getCourses().size());
+        SchedulingResult result = new SchedulingResult(snapshot.getExamSessions(), unscheduled, timedOut);
+        result.setScore(ScheduleScorer.score(schedule, config.getScoreWeights()));
+        return result;
     }
 
-    private static boolean hasConflict(Schedule schedule, Course course, ExamSlot slot) {
-        for (ExamSession session : schedule.getExamSessions()) {
-            if (!session.getSlot().equals(slot)) continue;
+    private static final class Run {
+        final PlacementState state;
+        final List<ExamSession> sessions = new ArrayList<>();
+        final List<Course> unscheduled = new ArrayList<>();
+        final Set<Course> kept = new HashSet<>();
+        boolean timedOut;
 
-            for (Student s : course.getStudents()) {
-                if (session.getCourse().getStudents().contains(s)) {
-                    return true;
-                }
-            }
+        Run(PlacementState state) {
+            this.state = state;
         }
-        return false;
     }
 
-    private static boolean isClassroomFreeAtSlot(Schedule schedule, Classroom classroom, ExamSlot slot) {
-        for (ExamSession session : schedule.getExamSessions()) {
-            if (session.getClassroom().equals(classroom) && session.getSlot().equals(slot)) {
-                return false;
+    // Re-places each seeded course at its old slot and rooms when that is still allowed: the slot is in
+    // the window, the rooms still exist and seat the course's current students, and no student conflicts.
+    private static void keepSeeds(List<Course> input, Run run, Map<String, ExamSession> seedByCode,
+                                  Map<ExamSlot, ExamSlot> slotOf, Map<String, Integer> roomOf,
+                                  List<Classroom> classrooms, SchedulerConfig config) {
+        for (Course course : orderCourses(input, config.getStrategy())) {
+            ExamSession seed = seedByCode.get(course.getCode());
+            if (seed == null) continue;
+            ExamSlot slot = slotOf.get(seed.getSlot());
+            if (slot == null || (seed.isSplit() && !config.isAllowRoomSplitting())) continue;
+            int[] roomIdx = new int[seed.getClassrooms().size()];
+            for (int i = 0; i < roomIdx.length; i++) {
+                Integer idx = roomOf.get(seed.getClassrooms().get(i).getName());
+                roomIdx[i] = idx == null ? -1 : idx;
+            }
+            if (Arrays.stream(roomIdx).anyMatch(i -> i < 0)) continue;
+
+            int need = course.getStudents().size();
+            int[] seats = run.state.rooms().seatsFor(slot.getOrdinal(), roomIdx, need);
+            if (Arrays.stream(seats).sum() < need) continue;
+            if (run.state.studentViolation(course, slot.getOrdinal()) != null) continue;
+            if (place(run, run.state, course, classrooms, roomIdx, slot)) {
+                run.kept.add(course);
+                if (SchedulerMetrics.isEnabled()) SchedulerMetrics.increment(SchedulerMetrics.Counter.SEEDS_KEPT);
             }
         }
-        return true;
     }
 
+    private static void scheduleCourses(List<Course> input, Run run, List<ExamSlot> slots, List<Classroom> classrooms,
+                                        RoomReservations rooms, SchedulerConfig config, long deadline) {
+        boolean metrics = SchedulerMetrics.isEnabled();
+        boolean sharing = config.isAllowRoomSharing();
+        List<Course> courses = orderCourses(input, config.getStrategy());
+        PlacementState state = run.state;
 
-    private static boolean violatesStudentConstraints(Schedule schedule, Course course, ExamSlot candidate) {
-        for (Student s : course.getStudents()) {
-            int examsThatDay = 0;
+        int nextRoomIndex = 0;
 
-            for (ExamSession session : schedule.getExamSessions()) {
-                if (!session.getCourse().getStudents().contains(s)) continue;
+        for (Course course : courses) {
+            if (run.kept.contains(course)) continue;
+            if (!run.timedOut && System.nanoTime() > deadline) run.timedOut = true;
+            if (run.timedOut) {
+                run.unscheduled.add(course);
+                continue;
+            }
 
-                ExamSlot other = session.getSlot();
-                if (!other.getDate().equals(candidate.getDate())) continue;
+            boolean placed = false;
+            int neededCapacity = course.getStudents().size();
+            long scanStart = metrics ? System.nanoTime() : 0L;
 
-                examsThatDay++;
+            for (ExamSlot slot : slots) {
+                if (placed) break;
+                if (metrics) SchedulerMetrics.increment(SchedulerMetrics.Counter.SLOT_PROBES);
 
-                if (areConsecutive(other, candidate)) {
-                    return true;
+                long t0 = metrics ? System.nanoTime() : 0L;
+                SchedulerMetrics.Counter rejection = state.studentViolation(course, slot.getOrdinal());
+                if (metrics) {
+                    SchedulerMetrics.record(SchedulerMetrics.Phase.CONSTRAINT_CHECK, System.nanoTime() - t0);
+                    if (rejection != null) SchedulerMetrics.increment(rejection);
+                }
+                if (rejection != null) continue;
+
+                long t1 = metrics ? System.nanoTime() : 0L;
+                // Retried while another thread wins the chosen room
+                while (sharing && !placed) {
+                    if (metrics) SchedulerMetrics.add(SchedulerMetrics.Counter.ROOM_PROBES, classrooms.size());
+                    int idx = rooms.bestFitRoom(slot.getOrdinal(), neededCapacity);
+                    if (idx < 0) {
+                        if (metrics) SchedulerMetrics.increment(SchedulerMetrics.Counter.REJECT_CAPACITY);
+                        break;
+                    }
+                    placed = place(run, state, course, classrooms, new int[]{idx}, slot);
                 }
-            }
-
-            if (examsThatDay >= 2) return true;
-        }
-        return false;
-    }
-
-    private static boolean areConsecutive(ExamSlot a, ExamSlot b) {
-        if (!a.getDate().equals(b.getDate())) return false;
 
-        int ia = slotIndex(a);
-        int ib = slotIndex(b);
+                for (int offset = 0; offset < classrooms.size() && !sharing; offset++) {
+                    int idx = (nextRoomIndex + offset) % classrooms.size();
+                    Classroom room = classrooms.get(idx);
+                    if (metrics) SchedulerMetrics.increment(SchedulerMetrics.Counter.ROOM_PROBES);
 
+                    if (room.getCapacity() < neededCapacity) {
+                        if (metrics) SchedulerMetrics.increment(SchedulerMetrics.Counter.REJECT_CAPACITY);
+                        continue;
+                    }
+                    if (!rooms.isRoomFree(slot.getOrdinal(), idx)
+                            || !place(run, state, course, classrooms, new int[]{idx}, slot)) {
+                        if (metrics) SchedulerMetrics.increment(SchedulerMetrics.Counter.REJECT_ROOM_BUSY);
+                        continue;
+                    }
 
-        if (ia < 0 || ib < 0) return false;
+                    nextRoomIndex = (idx + 1) % classrooms.size();
+                    placed = true;
+                    break;
+                }
 
+                while (!placed && config.isAllowRoomSplitting()) {
+                    int[] split = rooms.findRoomSplit(slot.getOrdinal(), neededCapacity);
+                    if (split == null) break;
+                    placed = place(run, state, course, classrooms, split, slot);
+                }
+                if (metrics) SchedulerMetrics.record(SchedulerMetrics.Phase.ROOM_SEARCH, System.nanoTime() - t1);
+            }
 
-        return Math.abs(ia - ib) == 1;
+            if (metrics) {
+                SchedulerMetrics.record(SchedulerMetrics.Phase.SLOT_SCAN, System.nanoTime() - scanStart);
+                SchedulerMetrics.increment(placed
+                        ? SchedulerMetrics.Counter.PLACEMENTS
+                        : SchedulerMetrics.Counter.UNSCHEDULED);
+            }
+            if (!placed) run.unscheduled.add(course);
+        }
     }
 
-    private static int slotIndex(ExamSlot slot) {
+    private static boolean place(Run run, PlacementState state, Course course,
+                                 List<Classroom> classrooms, int[] roomIdx, ExamSlot slot) {
+        int[] seats = state.rooms().seatsFor(slot.getOrdinal(), roomIdx, course.getStudents().size());
+        if (!state.place(course, slot.getOrdinal(), roomIdx, seats)) return false;
 
-        if (slot.getStartTime().equals(LocalTime.of(9, 0))) return 0;
-        if (slot.getStartTime().equals(LocalTime.of(11, 30))) return 1;
-        if (slot.getStartTime().equals(LocalTime.of(14, 0))) return 2;
-        if (slot.getStartTime().equals(LocalTime.of(16, 30))) return 3;
-        return -1;
+        List<Classroom> rooms = new ArrayList<>(roomIdx.length);
+        for (int idx : roomIdx) rooms.add(classrooms.get(idx));
+        run.sessions.add(new ExamSession(course, rooms, seats, slot));
+        return true;
     }
 
+    // Courses whose exam kept its date and time from before to after, e.g. across a warm start
+    static int keptDates(List<ExamSession> before, List<ExamSession> after) {
+        Map<String, ExamSlot> was = new HashMap<>();
+        for (ExamSession s : before) was.put(s.getCourse().getCode(), s.getSlot());
+        int kept = 0;
+        for (ExamSession s : after) {
+            if (s.getSlot().equals(was.get(s.getCourse().getCode()))) kept++;
+        }
+        return kept;
+    }
 
-    private static List<ExamSlot> generateSlots(LocalDate startDate, LocalDate endDate) {
-        List<ExamSlot> slots = new ArrayList<>();
-        if (startDate == null || endDate == null || endDate.isBefore(startDate)) return slots;
+    static List<Course> orderCourses(List<Course> input, SchedulerConfig.Strategy strategy) {
+        List<Course> courses = new ArrayList<>(input);
+        Comparator<Course> bySize = Comparator.comparingInt((Course c) -> c.getStudents().size()).reversed();
 
-        LocalDate date = startDate;
-        while (!date.isAfter(endDate)) {
-            slots.add(new ExamSlot(date, LocalTime.of(9, 0), LocalTime.of(11, 0)));
-            slots.add(new ExamSlot(date, LocalTime.of(11, 30), LocalTime.of(13, 30)));
-            slots.add(new ExamSlot(date, LocalTime.of(14, 0), LocalTime.of(16, 0)));
-            slots.add(new ExamSlot(date, LocalTime.of(16, 30), LocalTime.of(18, 30)));
-            date = date.plusDays(1);
+        if (strategy == SchedulerConfig.Strategy.MOST_CONSTRAINED_FIRST) {
+            Map<Course, Integer> degree = new HashMap<>();
+            for (Course c : courses) {
+                Set<Course> neighbours = new HashSet<>();
+                for (Student s : c.getStudents()) {
+                    neighbours.addAll(s.getCourses());
+                }
+                neighbours.remove(c);
+                degree.put(c, neighbours.size());
+            }
+            courses.sort(Comparator.comparingInt((Course c) -> degree.get(c)).reversed().thenComparing(bySize));
+        } else {
+            courses.sort(bySize);
         }
-        return slots;
+        return courses;
     }
 }
@@ -1,13 +1,26 @@
 package org.example.se302_examscheduler;
 
+import java.util.List;
+import java.util.StringJoiner;
+
 public class ExamSession {
     private final Course course;
-    private final Classroom classroom;
+    private final List<Classroom> classrooms;
+    private final int[] seats;
     private final ExamSlot slot;
 
     public ExamSession(Course course, Classroom classroom, ExamSlot slot) {
+        this(course, List.of(classroom), new int[]{course.getStudents().size()}, slot);
+    }
+
+    // seats[i] is how many of the course's students sit in classrooms.get(i)
+    public ExamSession(Course course, List<Classroom> classrooms, int[] seats, ExamSlot slot) {
+        if (classrooms.isEmpty() || classrooms.size() != seats.length) {
+            throw new IllegalArgumentException("Each classroom needs a seat count");
+        }
         this.course = course;
-        this.classroom = classroom;
+        this.classrooms = List.copyOf(classrooms);
+        this.seats = seats.clone();
         this.slot = slot;
     }
 
@@ -15,11 +28,53 @@ public class ExamSession {
         return course;
     }
 
+    // Primary room; split sessions list the others in getClassrooms()
     public Classroom getClassroom() {
-        return classroom;
+        return classrooms.get(0);
+    }
+
+    public List<Classroom> getClassrooms() {
+        return classrooms;
+    }
+
+    public int getSeats(int roomIndex) {
+        return seats[roomIndex];
+    }
+
+    public int getSeatsIn(Classroom room) {
+        for (int i = 0; i < classrooms.size(); i++) {
+            if (classrooms.get(i) == room) return seats[i];
+        }
+        return 0;
+    }
+
+    public boolean isSplit() {
+        return classrooms.size() > 1;
+    }
+
+    public int getTotalCapacity() {
+        int sum = 0;
+        for (Classroom c : classrooms) sum += c.getCapacity();
+        return sum;
+    }
+
+    public String getRoomNames() {
+        if (!isSplit()) return getClassroom().getName();
+        StringJoiner j = new StringJoiner("+");
+        for (Classroom c : classrooms) j.add(c.getName());
+        return j.toString();
     }
 
     public ExamSlot getSlot() {
         return slot;
     }
+
+    public ExamSession withSlot(ExamSlot newSlot) {
+        return new ExamSession(course, classrooms, seats, newSlot);
+    }
+
+    @Override
+    public String toString() {
+        return course.getCode() + " @ " + getRoomNames() + " " + slot;
+    }
 }
@@ -8,11 +8,22 @@ public class ExamSlot {
     private final LocalDate date;
     private final LocalTime startTime;
     private final LocalTime endTime;
+    private final int ordinal;
+    private final int dayIndex;
+    private final int periodIndex;
 
     public ExamSlot(LocalDate date, LocalTime startTime, LocalTime endTime) {
+        this(date, startTime, endTime, -1, -1, -1);
+    }
+
+    public ExamSlot(LocalDate date, LocalTime startTime, LocalTime endTime,
+                    int ordinal, int dayIndex, int periodIndex) {
         this.date = date;
         this.startTime = startTime;
         this.endTime = endTime;
+        this.ordinal = ordinal;
+        this.dayIndex = dayIndex;
+        this.periodIndex = periodIndex;
     }
 
     public LocalDate getDate() {
@@ -27,6 +38,24 @@ public class ExamSlot {
         return endTime;
     }
 
+    // Dense position in the generated slot list; -1 for slots not produced by a SlotCalendar
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    public int getDayIndex() {
+        return dayIndex;
+    }
+
+    public int getPeriodIndex() {
+        return periodIndex;
+    }
+
+    public boolean isConsecutiveWith(ExamSlot other) {
+        return dayIndex == other.dayIndex && periodIndex >= 0 && other.periodIndex >= 0
+                && Math.abs(periodIndex - other.periodIndex) == 1;
+    }
+
     @Override
     public String toString() {
         return date + " " + startTime + "-" + endTime;
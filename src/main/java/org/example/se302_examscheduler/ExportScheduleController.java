@@ -76,7 +76,7 @@ public class ExportScheduleController {
             return;
         }
 
-        if (schedule.getExamSessions().isEmpty()) {
+        if (schedule.snapshot().getExamSessions().isEmpty()) {
             showError("There is no schedule to export. Please generate a schedule first.");
             return;
         }
@@ -110,10 +110,10 @@ public class ExportScheduleController {
         try (PrintWriter out = new PrintWriter(new FileWriter(file))) {
             out.println("Course;Classroom;Date;Start;End");
 
-            for (ExamSession session : schedule.getExamSessions()) {
+            for (ExamSession session : schedule.snapshot().getExamSessions()) {
                 out.println(
                         session.getCourse().getCode() + ";" +
-                                session.getClassroom().getName() + ";" +
+                                session.getRoomNames() + ";" +
                                 session.getSlot().getDate() + ";" +
                                 session.getSlot().getStartTime() + ";" +
                                 session.getSlot().getEndTime()
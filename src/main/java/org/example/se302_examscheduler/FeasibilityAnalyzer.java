@@ -0,0 +1,188 @@
+package org.example.se302_examscheduler;
+
+import java.time.LocalDate;
+import java.util.*;
+
+// Fast lower bounds checked before generating. Passing them does not guarantee a full timetable,
+// but failing any of them proves the date range (or the rooms) can never be enough.
+public final class FeasibilityAnalyzer {
+
+    private FeasibilityAnalyzer() {}
+
+    public static class Report {
+        final int availableDays;
+        final int availableSlots;
+        final int minDays;
+        final List<Course> clique;
+        final Student busiestStudent;
+        final int maxStudentLoad;
+        final int minRoomSlots;
+        final List<Course> neverFit;
+        final LocalDate earliestEnd;
+        final String text;
+
+        Report(int availableDays, int availableSlots, int minDays, List<Course> clique,
+               Student busiestStudent, int maxStudentLoad, int minRoomSlots,
+               List<Course> neverFit, LocalDate earliestEnd, String text) {
+            this.availableDays = availableDays;
+            this.availableSlots = availableSlots;
+            this.minDays = minDays;
+            this.clique = clique;
+            this.busiestStudent = busiestStudent;
+            this.maxStudentLoad = maxStudentLoad;
+            this.minRoomSlots = minRoomSlots;
+            this.neverFit = neverFit;
+            this.earliestEnd = earliestEnd;
+            this.text = text;
+        }
+
+        public boolean isFeasible() {
+            return minDays <= availableDays && neverFit.isEmpty();
+        }
+
+        public int getAvailableDays() {
+            return availableDays;
+        }
+
+        public int getAvailableSlots() {
+            return availableSlots;
+        }
+
+        public int getMinDays() {
+            return minDays;
+        }
+
+        public List<Course> getClique() {
+            return clique;
+        }
+
+        public int getMaxStudentLoad() {
+            return maxStudentLoad;
+        }
+
+        public int getMinRoomSlots() {
+            return minRoomSlots;
+        }
+
+        public List<Course> getNeverFit() {
+            return neverFit;
+        }
+
+        // Null when the calendar has too few exam days within a year of the start
+        public LocalDate getEarliestEnd() {
+            return earliestEnd;
+        }
+
+        public String getText() {
+            return text;
+        }
+    }
+
+    public static Report analyze(Schedule schedule, LocalDate start, LocalDate end, SchedulerConfig config) {
+        SlotCalendar calendar = config.getCalendar();
+        List<ExamSlot> slots = calendar.generateSlots(start, end);
+        int availableDays = slots.isEmpty() ? 0 : slots.get(slots.size() - 1).getDayIndex() + 1;
+
+        int periods = calendar.maxPeriodsPerDay();
+        // Exams sharing a student may not sit in adjacent periods, and a student sits at most 2 a day
+        int spacedPerDay = (periods + 1) / 2;
+        int perStudentPerDay = Math.min(2, spacedPerDay);
+
+        List<Course> neverFit = new ArrayList<>();
+        int minRoomSlots = roomSlotsNeeded(schedule, config, neverFit);
+
+        // Courses that can never be placed do not constrain the others
+        List<Course> courses = new ArrayList<>(schedule.getCourses());
+        courses.removeAll(new HashSet<>(neverFit));
+        ConflictGraph graph = new ConflictGraph(courses);
+        List<Course> clique = graph.greedyClique(32);
+
+        Student busiest = (courses.size() >= ConflictGraph.PARALLEL_THRESHOLD
+                ? schedule.getStudents().parallelStream()
+                : schedule.getStudents().stream())
+                .max(Comparator.comparingInt(s -> s.getCourses().size()))
+                .orElse(null);
+        int maxLoad = busiest == null ? 0 : busiest.getCourses().size();
+
+        int minDays = 0;
+        if (periods > 0) {
+            minDays = Math.max(minDays, ceilDiv(clique.size(), spacedPerDay));
+            minDays = Math.max(minDays, ceilDiv(maxLoad, perStudentPerDay));
+            minDays = Math.max(minDays, ceilDiv(minRoomSlots, periods));
+        }
+        LocalDate earliestEnd = earliestEnd(calendar, start, minDays);
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("Exam days in range: ").append(availableDays)
+                .append(" (").append(slots.size()).append(" slots)\n");
+        sb.append("Minimum exam days needed: ").append(minDays).append("\n");
+        sb.append(" - ").append(clique.size()).append(" courses pairwise share students (")
+                .append(clique.stream().limit(8).map(Course::getCode).reduce((a, b) -> a + ", " + b).orElse(""))
+                .append(clique.size() > 8 ? ", ..." : "").append(")\n");
+        if (busiest != null) {
+            sb.append(" - student ").append(busiest.getId()).append(" has ").append(maxLoad).append(" exams\n");
+        }
+        sb.append(" - rooms need at least ").append(minRoomSlots).append(" slots\n");
+        if (earliestEnd != null && minDays > availableDays) {
+            sb.append("Earliest possible end date: ").append(earliestEnd).append("\n");
+        }
+        if (!neverFit.isEmpty()) {
+            sb.append("Courses that can never fit a room: ");
+            neverFit.forEach(c -> sb.append(c.getCode()).append(" (").append(c.getStudents().size()).append(") "));
+            sb.append("\n");
+        }
+
+        return new Report(availableDays, slots.size(), minDays, clique, busiest, maxLoad, minRoomSlots,
+                neverFit, earliestEnd, sb.toString());
+    }
+
+    // Slots the rooms need; fills neverFit with courses no room (or room set, when splitting) can seat.
+    private static int roomSlotsNeeded(Schedule schedule, SchedulerConfig config, List<Course> neverFit) {
+        int[] capsDesc = schedule.getClassrooms().stream()
+                .mapToInt(Classroom::getCapacity)
+                .map(v -> -v).sorted().map(v -> -v).toArray();
+        long totalCapacity = Arrays.stream(capsDesc).asLongStream().sum();
+        int largest = capsDesc.length == 0 ? 0 : capsDesc[0];
+        boolean pooled = config.isAllowRoomSplitting() || config.isAllowRoomSharing();
+
+        long seats = 0;
+        int[] levels = new int[capsDesc.length + 1];
+        for (Course c : schedule.getCourses()) {
+            int need = c.getStudents().size();
+            if (need > (config.isAllowRoomSplitting() ? totalCapacity : largest)) {
+                neverFit.add(c);
+                continue;
+            }
+            seats += need;
+            int rooms = 0;
+            while (rooms < capsDesc.length && capsDesc[rooms] >= need) rooms++;
+            levels[rooms]++;
+        }
+        if (totalCapacity == 0) return 0;
+        if (pooled) return (int) ((seats + totalCapacity - 1) / totalCapacity);
+
+        // Courses that fit only the k largest rooms use at most k of them per slot
+        int needed = 0;
+        int count = 0;
+        for (int k = 1; k <= capsDesc.length; k++) {
+            count += levels[k];
+            needed = Math.max(needed, ceilDiv(count, k));
+        }
+        return needed;
+    }
+
+    private static LocalDate earliestEnd(SlotCalendar calendar, LocalDate start, int days) {
+        if (start == null) return null;
+        if (days == 0) return start;
+        LocalDate limit = start.plusYears(1);
+        int seen = 0;
+        for (LocalDate d = start; !d.isAfter(limit); d = d.plusDays(1)) {
+            if (calendar.isExamDay(d) && ++seen == days) return d;
+        }
+        return null;
+    }
+
+    private static int ceilDiv(int a, int b) {
+        return b <= 0 ? 0 : (a + b - 1) / b;
+    }
+}
@@ -3,6 +3,7 @@ package org.example.se302_examscheduler;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.DatePicker;
 import javafx.scene.control.ProgressBar;
 import javafx.scene.control.TextArea;
@@ -10,8 +11,7 @@ import javafx.stage.Modality;
 import javafx.stage.Window;
 
 import java.time.LocalDate;
-import java.time.LocalTime;
-import java.util.*;
+import java.util.List;
 
 public class GenerateScheduleController {
 
@@ -21,6 +21,9 @@ public class GenerateScheduleController {
     @FXML
     private DatePicker endDatePicker;
 
+    @FXML
+    private CheckBox warmStartCheck;
+
     @FXML
     private ProgressBar progressBar;
 
@@ -31,6 +34,10 @@ public class GenerateScheduleController {
 
     public void setSchedule(Schedule schedule) {
         this.schedule = schedule;
+        // The timetable loaded from exam_sessions, if any, is the warm start
+        boolean hasTimetable = schedule != null && !schedule.snapshot().getExamSessions().isEmpty();
+        warmStartCheck.setSelected(hasTimetable);
+        warmStartCheck.setDisable(!hasTimetable);
     }
 
     @FXML
@@ -65,17 +72,27 @@ public class GenerateScheduleController {
 
         progressBar.setProgress(0.15);
 
-        SchedulingResult result = ExamSchedulerEngine.generateSchedule(schedule, start, end);
+        SchedulerConfig config = new SchedulerConfig();
+        config.setCalendar(DatabaseManager.loadSlotCalendar());
+        config.setWarmStart(warmStartCheck.isSelected());
+        List<ExamSession> previous = schedule.snapshot().getExamSessions();
+        SolutionCache.Outcome cached = SolutionCache.generate(schedule, start, end, config);
+        SchedulingResult result = cached.getResult();
 
         progressBar.setProgress(1.0);
 
-        messageArea.setText("DEBUG: Generate clicked. Sessions=" + schedule.getExamSessions().size()
-                + " | Unscheduled=" + (result == null ? -1 : result.getUnscheduledCourses().size()));
+        messageArea.setText("DEBUG: Generate clicked. Sessions=" + schedule.snapshot().getExamSessions().size()
+                + " | Unscheduled=" + (result == null ? -1 : result.getUnscheduledCourses().size())
+                + " | Cache=" + cached.getHit());
+        String kept = config.isWarmStart()
+                ? "- Kept " + ExamSchedulerEngine.keptDates(previous, result.getSessions()) + " of "
+                        + previous.size() + " earlier exam dates\n"
+                : "";
 
         if (result != null && !result.getUnscheduledCourses().isEmpty()) {
             StringBuilder sb = new StringBuilder();
             sb.append("⚠ Some courses could not be scheduled.\n")
-                    .append("Please extend the date range or adjust data.\n\n");
+                    .append("Please extend the date range or adjust data.\n").append(kept).append("\n");
             for (Course c : result.getUnscheduledCourses()) {
                 sb.append("- ").append(c.getCode())
                         .append(" (students: ").append(c.getStudents().size()).append(")\n");
@@ -89,10 +106,10 @@ public class GenerateScheduleController {
             return;
         }
 
-        ValidationReport report = validateScheduleByStudentId(schedule);
+        ScheduleValidator.ValidationResult report = ScheduleValidator.validate(schedule.snapshot());
 
-        if (report.issues > 0) {
-            messageArea.setText("❌ Conflicts detected (" + report.issues + "):\n\n" + report.details);
+        if (report.getIssues() > 0) {
+            messageArea.setText("❌ Conflicts detected (" + report.getIssues() + "):\n\n" + report.getReport());
 
             showAlert(Alert.AlertType.ERROR,
                     "Schedule Conflicts",
@@ -100,7 +117,7 @@ public class GenerateScheduleController {
                     "Conflicts were found.\n\nCheck Messages for details.");
         } else {
             messageArea.setText("✅ Schedule generated successfully.\nNo conflicts detected.\n"
-                    + "- No consecutive slots\n- Max 2 exams/day");
+                    + "- No consecutive slots\n- Max 2 exams/day\n" + kept);
 
             showAlert(Alert.AlertType.INFORMATION,
                     "Schedule OK",
@@ -108,88 +125,6 @@ public class GenerateScheduleController {
                     "All constraints satisfied.");
         }
     }
-    private static class ValidationReport {
-        int issues;
-        String details;
-        ValidationReport(int issues, String details) {
-            this.issues = issues;
-            this.details = details;
-        }
-    }
-    private ValidationReport validateScheduleByStudentId(Schedule schedule) {
-        int issues = 0;
-        StringBuilder out = new StringBuilder();
-
-        Map<String, List<ExamSession>> map = new HashMap<>();
-
-        for (ExamSession es : schedule.getExamSessions()) {
-            for (Student st : es.getCourse().getStudents()) {
-                map.computeIfAbsent(st.getId(), k -> new ArrayList<>()).add(es);
-            }
-        }
-
-        for (Map.Entry<String, List<ExamSession>> entry : map.entrySet()) {
-            String studentId = entry.getKey();
-            List<ExamSession> sessions = entry.getValue();
-
-            sessions.sort(Comparator
-                    .comparing((ExamSession s) -> s.getSlot().getDate())
-                    .thenComparing(s -> slotIndex(s.getSlot()))
-            );
-
-            Map<LocalDate, Integer> perDay = new HashMap<>();
-            for (ExamSession es : sessions) {
-                perDay.merge(es.getSlot().getDate(), 1, Integer::sum);
-            }
-            for (Map.Entry<LocalDate, Integer> e : perDay.entrySet()) {
-                if (e.getValue() > 2) {
-                    issues++;
-                    out.append("Max 2/day violated: ")
-                            .append(studentId)
-                            .append(" has ").append(e.getValue())
-                            .append(" exams on ").append(e.getKey())
-                            .append("\n");
-                }
-            }
-
-            for (int i = 1; i < sessions.size(); i++) {
-                ExamSession prevS = sessions.get(i - 1);
-                ExamSession curS = sessions.get(i);
-
-                ExamSlot prev = prevS.getSlot();
-                ExamSlot cur = curS.getSlot();
-
-                if (prev.getDate().equals(cur.getDate())) {
-                    int a = slotIndex(prev);
-                    int b = slotIndex(cur);
-                    if (a >= 0 && b >= 0 && Math.abs(a - b) == 1) {
-                        issues++;
-                        out.append("Consecutive slots violated: ")
-                                .append(studentId)
-                                .append(" (")
-                                .append(prevS.getCourse().getCode())
-                                .append(" then ")
-                                .append(curS.getCourse().getCode())
-                                .append(") on ")
-                                .append(cur.getDate())
-                                .append("\n");
-                    }
-                }
-            }
-        }
-
-        if (issues == 0) return new ValidationReport(0, "No issues.");
-        return new ValidationReport(issues, out.toString());
-    }
-
-    private int slotIndex(ExamSlot slot) {
-        if (slot.getStartTime().equals(LocalTime.of(9, 0))) return 0;
-        if (slot.getStartTime().equals(LocalTime.of(11, 30))) return 1;
-        if (slot.getStartTime().equals(LocalTime.of(14, 0))) return 2;
-        if (slot.getStartTime().equals(LocalTime.of(16, 30))) return 3;
-        return -1;
-    }
-
 private void showAlert(Alert.AlertType type, String title, String header, String content) {
     Alert alert = new Alert(type);
     alert.setTitle(title);
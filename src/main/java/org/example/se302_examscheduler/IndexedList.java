@@ -0,0 +1,104 @@
+package org.example.se302_examscheduler;
+
+import java.util.*;
+import java.util.function.Function;
+
+// ArrayList that keeps a key -> element map in step with every add, set and remove, so lookups
+// by code / id / name need no scan and no per-call map. Keys must not change while an element is
+// in the list. With duplicate keys the last element wins, like a map rebuilt from the list.
+final class IndexedList<K, V> extends AbstractList<V> implements RandomAccess {
+
+    private final ArrayList<V> items = new ArrayList<>();
+    private final Map<K, V> index = new HashMap<>();
+    private final Function<V, K> keyOf;
+    private boolean duplicateKeys;      // once set, removals must look for another holder of the key
+
+    IndexedList(Function<V, K> keyOf) {
+        this.keyOf = keyOf;
+    }
+
+    V byKey(K key) {
+        return index.get(key);
+    }
+
+    Map<K, V> asMap() {
+        return Collections.unmodifiableMap(index);
+    }
+
+    @Override
+    public V get(int i) {
+        return items.get(i);
+    }
+
+    @Override
+    public int size() {
+        return items.size();
+    }
+
+    @Override
+    public V set(int i, V element) {
+        V old = items.set(i, element);
+        V holder = index.get(keyOf.apply(element));
+        if (holder != null && holder != old) duplicateKeys = true;
+        reindex(keyOf.apply(old));
+        reindex(keyOf.apply(element));
+        return old;
+    }
+
+    @Override
+    public void add(int i, V element) {
+        items.add(i, element);
+        modCount++;
+        if (index.containsKey(keyOf.apply(element))) duplicateKeys = true;
+        reindex(keyOf.apply(element));
+    }
+
+    @Override
+    public boolean add(V element) {
+        items.add(element);
+        modCount++;
+        if (index.put(keyOf.apply(element), element) != null) duplicateKeys = true;
+        return true;
+    }
+
+    @Override
+    public V remove(int i) {
+        V old = items.remove(i);
+        modCount++;
+        K key = keyOf.apply(old);
+        if (index.get(key) == old) {
+            if (duplicateKeys) {
+                reindex(key);
+            } else {
+                index.remove(key);
+            }
+        }
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        items.clear();
+        index.clear();
+        duplicateKeys = false;
+        modCount++;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends V> c) {
+        items.ensureCapacity(items.size() + c.size());
+        for (V v : c) add(v);
+        return !c.isEmpty();
+    }
+
+    // Points the key at its last remaining element; only needed off the append path
+    private void reindex(K key) {
+        for (int i = items.size() - 1; i >= 0; i--) {
+            if (Objects.equals(keyOf.apply(items.get(i)), key)) {
+                index.put(key, items.get(i));
+                return;
+            }
+        }
+        index.remove(key);
+    }
+}
@@ -5,6 +5,8 @@ import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
@@ -18,13 +20,6 @@ import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
 
-
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.pdmodel.PDPage;
-import org.apache.pdfbox.pdmodel.common.PDRectangle;
-import org.apache.pdfbox.pdmodel.PDPageContentStream;
-import org.apache.pdfbox.pdmodel.font.PDType1Font;
-
 public class MainController {
     private final Schedule schedule = new Schedule();
 
@@ -37,19 +32,24 @@ public class MainController {
     @FXML private TableColumn<ExamSession, String> endTimeColumn;
     @FXML private Label statusLabel;
     @FXML private TextField filterField;
+    @FXML private TitledPane diagnosticsPane;
+    @FXML private CheckBox metricsToggle;
+    @FXML private TextArea diagnosticsArea;
 
     private final ObservableList<ExamSession> masterSessions = FXCollections.observableArrayList();
+    private boolean generating;
 
     public void initialize() {
         try {
             DatabaseManager.init();
             DatabaseManager.loadIntoSchedule(schedule);
+            ScheduleScorer.score(schedule.snapshot(), new ScoreWeights());
         } catch (Exception e) {
             e.printStackTrace();
         }
 
         courseColumn.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getCourse().getCode()));
-        classroomColumn.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getClassroom().getName()));
+        classroomColumn.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getRoomNames()));
         dateColumn.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getSlot().getDate().toString()));
         startTimeColumn.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getSlot().getStartTime().toString()));
         endTimeColumn.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getSlot().getEndTime().toString()));
@@ -58,6 +58,13 @@ public class MainController {
             filterField.textProperty().addListener((obs, oldV, newV) -> applyFilter());
         }
 
+        if (diagnosticsPane != null) {
+            diagnosticsPane.expandedProperty().addListener((obs, oldV, newV) -> {
+                if (newV) refreshDiagnostics(true);
+            });
+        }
+        if (metricsToggle != null) metricsToggle.setSelected(SchedulerMetrics.isEnabled());
+
         refreshScheduleTable();
         setStatus("Ready. " + summaryText());
     }
@@ -66,7 +73,15 @@ public class MainController {
         return "Courses: " + schedule.getCourses().size()
                 + " | Students: " + schedule.getStudents().size()
                 + " | Classrooms: " + schedule.getClassrooms().size()
-                + " | Sessions: " + schedule.getExamSessions().size();
+                + " | Sessions: " + schedule.snapshot().getExamSessions().size()
+                + scoreText();
+    }
+
+    // Only a score already computed for this version (by generation, a move or the diagnostics);
+    // edits do not pay for a full rescore just to update the status line
+    private String scoreText() {
+        ScheduleScorer scorer = schedule.snapshot().scorerIfBuilt(new ScoreWeights());
+        return scorer == null || schedule.snapshot().getExamSessions().isEmpty() ? "" : " | Score: " + scorer.total();
     }
 
     private Stage getOwnerStage() {
@@ -76,22 +91,49 @@ public class MainController {
         return null;
     }
 
-    private int slotIndex(ExamSlot slot) {
-        if (slot.getStartTime().equals(java.time.LocalTime.of(9, 0))) return 0;
-        if (slot.getStartTime().equals(java.time.LocalTime.of(11, 30))) return 1;
-        if (slot.getStartTime().equals(java.time.LocalTime.of(14, 0))) return 2;
-        if (slot.getStartTime().equals(java.time.LocalTime.of(16, 30))) return 3;
-        return -1;
-    }
-
     private void setStatus(String text) {
         if (statusLabel != null) statusLabel.setText(text);
     }
 
     private void refreshScheduleTable() {
         if (scheduleTable == null) return;
-        masterSessions.setAll(schedule.getExamSessions());
+        masterSessions.setAll(schedule.snapshot().views().byTime());
         applyFilter();
+        refreshDiagnostics(false);
+    }
+
+    // rescore: score this version if it has not been scored yet (an explicit refresh)
+    private void refreshDiagnostics(boolean rescore) {
+        if (diagnosticsArea == null || diagnosticsPane == null || !diagnosticsPane.isExpanded()) return;
+        ScheduleSnapshot snap = schedule.snapshot();
+        ScheduleScorer scorer = rescore ? snap.scorer(new ScoreWeights()) : snap.scorerIfBuilt(new ScoreWeights());
+        String score = snap.getExamSessions().isEmpty() ? ""
+                : scorer == null ? "Score: not computed for this version (Refresh)\n\n"
+                : scorer.describe() + "\n\n";
+        diagnosticsArea.setText(score + SchedulerMetrics.report());
+    }
+
+    @FXML
+    private void handleToggleMetrics(ActionEvent event) {
+        SchedulerMetrics.setEnabled(metricsToggle.isSelected());
+        refreshDiagnostics(false);
+    }
+
+    @FXML
+    private void handleRefreshDiagnostics(ActionEvent event) {
+        refreshDiagnostics(true);
+    }
+
+    @FXML
+    private void handleResetDiagnostics(ActionEvent event) {
+        SchedulerMetrics.reset();
+        refreshDiagnostics(false);
+    }
+
+    @FXML
+    private void handleShowDiagnostics(ActionEvent event) {
+        if (diagnosticsPane != null) diagnosticsPane.setExpanded(true);
+        refreshDiagnostics(true);
     }
 
     private void applyFilter() {
@@ -108,7 +150,7 @@ public class MainController {
         ObservableList<ExamSession> filtered = FXCollections.observableArrayList();
         for (ExamSession s : masterSessions) {
             String hay = (s.getCourse().getCode() + " " +
-                    s.getClassroom().getName() + " " +
+                    s.getRoomNames() + " " +
                     s.getSlot().getDate() + " " +
                     s.getSlot().getStartTime() + "-" + s.getSlot().getEndTime()).toLowerCase();
 
@@ -118,6 +160,7 @@ public class MainController {
     }
     @FXML
     private void handleImportClassrooms(ActionEvent event) {
+        if (busyGenerating("Import Classrooms")) return;
         File f = chooseCsv("Import Classrooms CSV");
         if (f == null) return;
 
@@ -134,6 +177,7 @@ public class MainController {
 
     @FXML
     private void handleImportCourses(ActionEvent event) {
+        if (busyGenerating("Import Courses")) return;
         File f = chooseCsv("Import Courses CSV");
         if (f == null) return;
 
@@ -150,6 +194,7 @@ public class MainController {
 
     @FXML
     private void handleImportStudents(ActionEvent event) {
+        if (busyGenerating("Import Students")) return;
         File f = chooseCsv("Import Students CSV");
         if (f == null) return;
 
@@ -166,6 +211,7 @@ public class MainController {
 
     @FXML
     private void handleImportAttendance(ActionEvent event) {
+        if (busyGenerating("Import Attendance")) return;
         File f = chooseCsv("Import Attendance Lists CSV");
         if (f == null) return;
 
@@ -191,6 +237,10 @@ public class MainController {
     }
     @FXML
     private void handleGenerateSchedule(ActionEvent event) {
+        if (generating) {
+            showInfo("Generate Schedule", "A schedule is already being generated.");
+            return;
+        }
         Dialog<LocalDate[]> dialog = new Dialog<>();
         dialog.setTitle("Generate Schedule");
         dialog.initOwner(getOwnerStage());
@@ -209,6 +259,18 @@ public class MainController {
         grid.add(startPicker, 1, 0);
         grid.add(new Label("End date"), 0, 1);
         grid.add(endPicker, 1, 1);
+        CheckBox splitBox = new CheckBox("Split large courses across several rooms");
+        grid.add(splitBox, 0, 2, 2, 1);
+        CheckBox shareBox = new CheckBox("Let small exams share a room");
+        grid.add(shareBox, 0, 3, 2, 1);
+        CheckBox exactBox = new CheckBox("Exact solver (slower, proves the fewest unscheduled)");
+        grid.add(exactBox, 0, 4, 2, 1);
+        // Only offered when there is a timetable to start from
+        boolean hasTimetable = !schedule.snapshot().getExamSessions().isEmpty();
+        CheckBox warmBox = new CheckBox("Start from the current timetable (keep exams that still fit in place)");
+        warmBox.setSelected(hasTimetable);
+        warmBox.setDisable(!hasTimetable);
+        grid.add(warmBox, 0, 5, 2, 1);
         dialog.getDialogPane().setContent(grid);
 
         dialog.setResultConverter(bt -> {
@@ -226,53 +288,272 @@ public class MainController {
         }
 
         try {
-            SchedulingResult result = ExamSchedulerEngine.generateSchedule(schedule, res[0], res[1]);
-            DatabaseManager.saveExamSessions(schedule.getExamSessions());
-            refreshScheduleTable();
-
-            if (result != null && !result.getUnscheduledCourses().isEmpty()) {
-                String list = result.getUnscheduledCourses().stream()
-                        .map(Course::getCode).sorted().collect(Collectors.joining(", "));
-                showInfo("Generated with warnings",
-                        "Some courses could not be scheduled with the strict constraints.\nUnscheduled: " + list);
-                setStatus("Generated (with unscheduled courses). " + summaryText());
-            } else {
-                setStatus("Schedule generated. " + summaryText());
+            SchedulerConfig config = new SchedulerConfig();
+            config.setCalendar(DatabaseManager.loadSlotCalendar());
+            config.setAllowRoomSplitting(splitBox.isSelected());
+            config.setAllowRoomSharing(shareBox.isSelected());
+            if (exactBox.isSelected()) {
+                config.setEngine(SchedulerConfig.Engine.EXACT);
+                config.setTimeBudgetMs(60_000);
             }
-
-            ValidationResult vr = buildValidationReport();
-            if (vr.issues == 0) {
-                showInfo("Schedule OK", "No issues found. ✅");
-            } else {
-                showLargeText("Validation Report (" + vr.issues + " issue(s))", vr.report);
+            config.setWarmStart(warmBox.isSelected());
+            List<ExamSession> previous = warmBox.isSelected() ? schedule.snapshot().getExamSessions() : null;
+
+            FeasibilityAnalyzer.Report check = FeasibilityAnalyzer.analyze(schedule, res[0], res[1], config);
+            if (!check.isFeasible()
+                    && !confirm("Not enough room", check.getText() + "\nGenerate anyway?")) {
+                setStatus("Generation cancelled: " + check.getMinDays() + " exam days needed, "
+                        + check.getAvailableDays() + " available.");
+                return;
             }
 
+            // Runs off the FX thread; the table keeps showing the previous snapshot until commit
+            generating = true;
+            setStatus("Generating schedule...");
+            // An identical earlier request is answered from the solution cache; a similar one seeds the engine
+            Task<SolutionCache.Outcome> task = new Task<>() {
+                @Override
+                protected SolutionCache.Outcome call() {
+                    SolutionCache.Outcome outcome = SolutionCache.generate(schedule, res[0], res[1], config);
+                    DatabaseManager.saveExamSessions(schedule);
+                    return outcome;
+                }
+            };
+            task.setOnSucceeded(e -> {
+                generating = false;
+                showGenerationResult(task.getValue(), previous);
+            });
+            task.setOnFailed(e -> {
+                generating = false;
+                Throwable t = task.getException();
+                t.printStackTrace();
+                setStatus("Schedule generation failed.");
+                showError("Schedule generation failed", t.toString());
+            });
+            Thread worker = new Thread(task, "schedule-generator");
+            worker.setDaemon(true);
+            worker.start();
+
         } catch (Exception e) {
+            generating = false;
             e.printStackTrace();
             showError("Schedule generation failed", e.toString());
         }
     }
 
+    // The generator reads the live schedule on its worker thread, so nothing may import into or edit
+    // it until the run has committed
+    private boolean busyGenerating(String title) {
+        if (!generating) return false;
+        showInfo(title, "A schedule is being generated. Try again when it has finished.");
+        return true;
+    }
+
+    // previous is the timetable a warm start began from, or null
+    private void showGenerationResult(SolutionCache.Outcome outcome, List<ExamSession> previous) {
+        refreshScheduleTable();
+        SchedulingResult result = outcome.getResult();
+        String source = switch (outcome.getHit()) {
+            case EXACT -> "Reused a stored timetable (score " + result.getScore() + "). ";
+            case WARM -> "Started from a stored timetable (" + outcome.getSeeded() + " placements offered). ";
+            case MISS -> "";
+        };
+        if (previous != null) {
+            source += "Kept " + ExamSchedulerEngine.keptDates(previous, result.getSessions()) + " of "
+                    + previous.size() + " earlier exam dates. ";
+        }
+
+        if (result != null && !result.getUnscheduledCourses().isEmpty()) {
+            String list = result.getUnscheduledCourses().stream()
+                    .map(Course::getCode).sorted().collect(Collectors.joining(", "));
+            String proof = switch (result.getStatus()) {
+                case INFEASIBLE -> "\nThe exact solver proved no timetable can place more courses.";
+                case TIMEOUT -> "\nThe exact solver ran out of time before proving this is the best possible.";
+                default -> "";
+            };
+            showInfo("Generated with warnings",
+                    "Some courses could not be scheduled with the strict constraints.\nUnscheduled: " + list + proof);
+            setStatus("Generated (with unscheduled courses). " + source + summaryText());
+        } else {
+            setStatus("Schedule generated. " + source + summaryText());
+        }
+
+        ScheduleValidator.ValidationResult vr = ScheduleValidator.validate(schedule.snapshot());
+        if (vr.issues == 0) {
+            showInfo("Schedule OK", "No issues found. ✅");
+        } else {
+            showLargeText("Validation Report (" + vr.issues + " issue(s))", vr.report);
+        }
+    }
+
+    // Published versions and what changed between any two of them
+    @FXML
+    private void handleScheduleHistory(ActionEvent event) {
+        List<ScheduleHistory.Info> versions = DatabaseManager.listScheduleVersions();
+        if (versions.size() < 2) {
+            showInfo("History", versions.isEmpty()
+                    ? "No timetable has been published yet."
+                    : "Only one timetable has been published so far.");
+            return;
+        }
+        Stage stage = new Stage();
+        stage.setTitle("Schedule History");
+        stage.initOwner(getOwnerStage());
+        stage.initModality(Modality.WINDOW_MODAL);
+
+        List<Integer> numbers = versions.stream().map(ScheduleHistory.Info::getNumber).toList();
+        ComboBox<Integer> from = new ComboBox<>(FXCollections.observableArrayList(numbers));
+        ComboBox<Integer> to = new ComboBox<>(FXCollections.observableArrayList(numbers));
+        from.setValue(numbers.get(numbers.size() - 2));
+        to.setValue(numbers.get(numbers.size() - 1));
+
+        TextArea changes = new TextArea();
+        changes.setEditable(false);
+        changes.setStyle("-fx-font-family: monospace;");
+        VBox.setVgrow(changes, Priority.ALWAYS);
+
+        Runnable compare = () -> {
+            if (from.getValue() == null || to.getValue() == null) return;
+            List<ScheduleHistory.Change> diff = ScheduleHistory.diff(from.getValue(), to.getValue());
+            StringBuilder sb = new StringBuilder("Version " + from.getValue() + " -> " + to.getValue() + ": "
+                    + ScheduleHistory.summary(diff) + "\n\n");
+            for (ScheduleHistory.Change c : diff) sb.append(c).append('\n');
+            changes.setText(sb.toString());
+        };
+        from.setOnAction(e -> compare.run());
+        to.setOnAction(e -> compare.run());
+        compare.run();
+
+        HBox pick = new HBox(10, new Label("From version"), from, new Label("to version"), to);
+        VBox root = new VBox(10, pick, changes);
+        root.setStyle("-fx-padding: 12;");
+        stage.setScene(new javafx.scene.Scene(root, 860, 520));
+        stage.showAndWait();
+    }
+
+    @FXML
+    private void handleScenarios(ActionEvent event) {
+        if (busyGenerating("Scenarios")) return;
+        Stage owner = getOwnerStage();
+        Stage stage = new Stage();
+        stage.setTitle("Scenarios");
+        stage.initOwner(owner);
+        stage.initModality(Modality.WINDOW_MODAL);
+
+        ObservableList<Scenario> scenarios = FXCollections.observableArrayList(DatabaseManager.loadScenarios());
+        ListView<Scenario> list = new ListView<>(scenarios);
+        list.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        list.setPrefHeight(160);
+
+        TextArea comparison = new TextArea("Select scenarios and generate them to compare side by side.");
+        comparison.setEditable(false);
+        comparison.setStyle("-fx-font-family: monospace;");
+        VBox.setVgrow(comparison, Priority.ALWAYS);
+
+        Button add = new Button("Add...");
+        Button del = new Button("Delete");
+        Button run = new Button("Generate Selected");
+        Button activate = new Button("Make Active");
+
+        add.setOnAction(e -> {
+            Scenario sc = ScenarioForm.show(stage, sortedClassrooms());
+            if (sc == null) return;
+            DatabaseManager.saveScenario(sc);
+            scenarios.setAll(DatabaseManager.loadScenarios());
+        });
+
+        del.setOnAction(e -> {
+            Scenario sc = list.getSelectionModel().getSelectedItem();
+            if (sc == null || !confirm("Delete scenario", "Delete " + sc.getName() + "?")) return;
+            DatabaseManager.deleteScenario(sc.getName());
+            scenarios.setAll(DatabaseManager.loadScenarios());
+        });
+
+        run.setOnAction(e -> {
+            List<Scenario> picked = List.copyOf(list.getSelectionModel().getSelectedItems());
+            if (picked.isEmpty()) picked = List.copyOf(scenarios);
+            if (picked.isEmpty()) return;
+            List<Scenario> toRun = picked;
+            ScheduleSnapshot base = schedule.snapshot();
+            Task<List<ScenarioRunner.Outcome>> task = new Task<>() {
+                @Override
+                protected List<ScenarioRunner.Outcome> call() {
+                    List<ScenarioRunner.Outcome> outcomes =
+                            ScenarioRunner.runAll(base, toRun, DatabaseManager.loadSlotCalendar());
+                    for (ScenarioRunner.Outcome o : outcomes) {
+                        DatabaseManager.saveScenarioSessions(o.getScenario().getName(), o.getSchedule().getExamSessions());
+                    }
+                    return outcomes;
+                }
+            };
+            task.setOnSucceeded(ev -> {
+                generating = false;
+                run.setDisable(false);
+                comparison.setText(ScenarioRunner.compare(task.getValue()));
+            });
+            task.setOnFailed(ev -> {
+                generating = false;
+                run.setDisable(false);
+                comparison.setText("Generation failed: " + task.getException());
+            });
+            // The scenario engines read the shared rosters, so edits wait for them like for Generate
+            generating = true;
+            run.setDisable(true);
+            comparison.setText("Generating " + toRun.size() + " scenario(s)...");
+            Thread worker = new Thread(task, "scenario-generator");
+            worker.setDaemon(true);
+            worker.start();
+        });
+
+        activate.setOnAction(e -> {
+            Scenario sc = list.getSelectionModel().getSelectedItem();
+            if (sc == null || busyGenerating("Make Active")) return;
+            if (!confirm("Make active", "Replace the current timetable with the last generated " + sc.getName() + "?")) return;
+            ScheduleSnapshot snap = DatabaseManager.loadScenarioInto(sc, schedule);
+            if (snap.getExamSessions().isEmpty()) {
+                showInfo("Make Active", "Scenario " + sc.getName() + " has no generated sessions yet.");
+                return;
+            }
+            DatabaseManager.saveExamSessions(schedule);
+            ScheduleScorer.score(snap, new ScoreWeights());
+            refreshScheduleTable();
+            setStatus("Scenario " + sc.getName() + " is now the active timetable. " + summaryText());
+        });
+
+        HBox buttons = new HBox(10, add, del, run, activate);
+        VBox root = new VBox(10, list, buttons, comparison);
+        root.setStyle("-fx-padding: 12;");
+        stage.setScene(new javafx.scene.Scene(root, 860, 520));
+        stage.showAndWait();
+    }
+
     @FXML
     private void handleExportSchedule(ActionEvent event) {
-        if (schedule.getExamSessions().isEmpty()) {
+        if (schedule.snapshot().getExamSessions().isEmpty()) {
             showError("Nothing to export", "Generate a schedule first.");
             return;
         }
 
-        ChoiceDialog<String> formatDialog = new ChoiceDialog<>("CSV", "CSV", "PDF");
+        ChoiceDialog<String> formatDialog = new ChoiceDialog<>("CSV", "CSV", "PDF", "Columnar (analytics)",
+                "Personal timetables (ZIP)");
         formatDialog.setTitle("Export Schedule");
         formatDialog.setHeaderText("Choose export format");
         formatDialog.initOwner(getOwnerStage());
         String format = formatDialog.showAndWait().orElse(null);
         if (format == null) return;
+        if (format.startsWith("Personal")) {
+            exportPersonalTimetables();
+            return;
+        }
 
+        // The columnar file always holds every session and student; there is no view to pick
+        boolean columnar = format.startsWith("Columnar");
         ChoiceDialog<String> viewDialog = new ChoiceDialog<>("Course-based",
                 "Course-based", "By Classroom", "By Student", "By Day");
         viewDialog.setTitle("Export Schedule");
         viewDialog.setHeaderText("Choose export view");
         viewDialog.initOwner(getOwnerStage());
-        String view = viewDialog.showAndWait().orElse(null);
+        String view = columnar ? "" : viewDialog.showAndWait().orElse(null);
         if (view == null) return;
 
         FileChooser chooser = new FileChooser();
@@ -281,6 +562,9 @@ public class MainController {
         if ("PDF".equals(format)) {
             chooser.getExtensionFilters().setAll(new FileChooser.ExtensionFilter("PDF", "*.pdf"));
             chooser.setInitialFileName("schedule_export.pdf");
+        } else if (columnar) {
+            chooser.getExtensionFilters().setAll(new FileChooser.ExtensionFilter("Columnar schedule", "*.scol"));
+            chooser.setInitialFileName("schedule_export.scol");
         } else {
             chooser.getExtensionFilters().setAll(new FileChooser.ExtensionFilter("CSV", "*.csv"));
             chooser.setInitialFileName("schedule_export.csv");
@@ -289,266 +573,83 @@ public class MainController {
         File out = chooser.showSaveDialog(getOwnerStage());
         if (out == null) return;
 
-        try {
-            if ("PDF".equals(format)) {
-                exportToPdf(out, view);
-            } else {
-                exportToCsv(out, view);
+        // Exports the version on screen now, even if a new schedule is committed meanwhile
+        ScheduleSnapshot snapshot = schedule.snapshot();
+        Task<Void> task = new Task<>() {
+            @Override
+            protected Void call() throws Exception {
+                if ("PDF".equals(format)) {
+                    ScheduleExporter.exportToPdf(snapshot, out, view);
+                } else if (columnar) {
+                    ColumnarExport.write(snapshot, out);
+                } else {
+                    ScheduleExporter.exportToCsv(snapshot, out, view);
+                }
+                return null;
             }
+        };
+        task.setOnSucceeded(e -> {
             setStatus("Exported to " + out.getName());
             showInfo("Export", "Export completed: " + out.getName());
-        } catch (Exception e) {
-            e.printStackTrace();
-            showError("Export failed", e.toString());
-        }
-    }
-
-    private void exportToCsv(File out, String view) throws IOException {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(out))) {
-            switch (view) {
-                case "By Classroom" -> exportByClassroom(pw);
-                case "By Student" -> exportByStudent(pw);
-                case "By Day" -> exportByDay(pw);
-                default -> exportCourseBased(pw);
-            }
-        }
-    }
-
-    private void exportCourseBased(PrintWriter pw) {
-        pw.println("Course,Classroom,Date,Start,End");
-        schedule.getExamSessions().stream()
-                .sorted(Comparator.comparing((ExamSession s) -> s.getSlot().getDate())
-                        .thenComparing(s -> s.getSlot().getStartTime())
-                        .thenComparing(s -> s.getCourse().getCode()))
-                .forEach(s -> pw.printf("%s,%s,%s,%s,%s%n",
-                        s.getCourse().getCode(),
-                        s.getClassroom().getName(),
-                        s.getSlot().getDate(),
-                        s.getSlot().getStartTime(),
-                        s.getSlot().getEndTime()));
-    }
-
-    private void exportByClassroom(PrintWriter pw) {
-        pw.println("Classroom,Course,Date,Start,End");
-        schedule.getExamSessions().stream()
-                .sorted(Comparator.comparing((ExamSession s) -> s.getClassroom().getName())
-                        .thenComparing(s -> s.getSlot().getDate())
-                        .thenComparing(s -> s.getSlot().getStartTime()))
-                .forEach(s -> pw.printf("%s,%s,%s,%s,%s%n",
-                        s.getClassroom().getName(),
-                        s.getCourse().getCode(),
-                        s.getSlot().getDate(),
-                        s.getSlot().getStartTime(),
-                        s.getSlot().getEndTime()));
-    }
-
-    private void exportByDay(PrintWriter pw) {
-        pw.println("Date,Start,End,Course,Classroom");
-        schedule.getExamSessions().stream()
-                .sorted(Comparator.comparing((ExamSession s) -> s.getSlot().getDate())
-                        .thenComparing(s -> s.getSlot().getStartTime()))
-                .forEach(s -> pw.printf("%s,%s,%s,%s,%s%n",
-                        s.getSlot().getDate(),
-                        s.getSlot().getStartTime(),
-                        s.getSlot().getEndTime(),
-                        s.getCourse().getCode(),
-                        s.getClassroom().getName()));
-    }
-
-    private void exportByStudent(PrintWriter pw) {
-        pw.println("Student,Course,Date,Start,End,Classroom");
-        Map<String, List<ExamSession>> map = new HashMap<>();
-        for (Student st : schedule.getStudents()) {
-            List<ExamSession> sessions = new ArrayList<>();
-            for (ExamSession s : schedule.getExamSessions()) {
-                if (s.getCourse().getStudents().contains(st)) sessions.add(s);
-            }
-            sessions.sort(Comparator.comparing((ExamSession s) -> s.getSlot().getDate())
-                    .thenComparing(s -> s.getSlot().getStartTime()));
-            map.put(st.getId(), sessions);
-        }
-
-        map.keySet().stream().sorted().forEach(sid -> {
-            for (ExamSession s : map.get(sid)) {
-                pw.printf("%s,%s,%s,%s,%s,%s%n",
-                        sid,
-                        s.getCourse().getCode(),
-                        s.getSlot().getDate(),
-                        s.getSlot().getStartTime(),
-                        s.getSlot().getEndTime(),
-                        s.getClassroom().getName());
-            }
         });
+        task.setOnFailed(e -> {
+            task.getException().printStackTrace();
+            showError("Export failed", task.getException().toString());
+        });
+        setStatus("Exporting " + out.getName() + "...");
+        Thread worker = new Thread(task, "schedule-export");
+        worker.setDaemon(true);
+        worker.start();
     }
 
+    // One PDF and one .ics per student, all in a single zip
+    private void exportPersonalTimetables() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Save Personal Timetables");
+        chooser.getExtensionFilters().setAll(new FileChooser.ExtensionFilter("ZIP", "*.zip"));
+        chooser.setInitialFileName("personal_timetables.zip");
+        File out = chooser.showSaveDialog(getOwnerStage());
+        if (out == null) return;
 
-    private void exportToPdf(File out, String view) throws Exception {
-        List<String> lines = buildExportLines(view);
-
-        try (PDDocument doc = new PDDocument()) {
-            PDRectangle pageSize = PDRectangle.A4;
-            float margin = 48f;
-            float yStart = pageSize.getHeight() - margin;
-            float leading = 14f;
-
-            PDPage page = new PDPage(pageSize);
-            doc.addPage(page);
-
-            PDPageContentStream cs = new PDPageContentStream(doc, page);
-
-            cs.beginText();
-            cs.setFont(PDType1Font.HELVETICA_BOLD, 14);
-            cs.newLineAtOffset(margin, yStart);
-            cs.showText("Exam Schedule Export (" + view + ")");
-            cs.newLineAtOffset(0, -leading * 1.6f);
-
-            cs.setFont(PDType1Font.COURIER, 10);
-
-            float y = yStart - (leading * 2.6f);
-
-            for (String line : lines) {
-                if (y <= margin) {
-                    cs.endText();
-                    cs.close();
-
-                    page = new PDPage(pageSize);
-                    doc.addPage(page);
-
-                    cs = new PDPageContentStream(doc, page);
-                    cs.beginText();
-                    cs.setFont(PDType1Font.COURIER, 10);
-                    cs.newLineAtOffset(margin, pageSize.getHeight() - margin);
-                    y = pageSize.getHeight() - margin;
-                }
-
-                for (String wrapped : wrapLine(line, 95)) {
-                    cs.showText(wrapped);
-                    cs.newLineAtOffset(0, -leading);
-                    y -= leading;
-
-                    if (y <= margin) break;
-                }
-            }
-
-            cs.endText();
-            cs.close();
-
-            doc.save(out);
-        }
-    }
-
-    private List<String> buildExportLines(String view) {
-        List<ExamSession> sessions = new ArrayList<>(schedule.getExamSessions());
-        sessions.sort(Comparator.comparing((ExamSession s) -> s.getSlot().getDate())
-                .thenComparing(s -> s.getSlot().getStartTime())
-                .thenComparing(s -> s.getCourse().getCode()));
-
-        List<String> lines = new ArrayList<>();
-        lines.add("--------------------------------------------------------------------------");
-
-        switch (view) {
-            case "By Classroom" -> {
-                Map<String, List<ExamSession>> map = sessions.stream()
-                        .collect(Collectors.groupingBy(s -> s.getClassroom().getName()));
-                map.keySet().stream().sorted().forEach(room -> {
-                    lines.add("== " + room + " ==");
-                    map.get(room).stream()
-                            .sorted(Comparator.comparing((ExamSession s) -> s.getSlot().getDate())
-                                    .thenComparing(s -> s.getSlot().getStartTime()))
-                            .forEach(s -> lines.add(String.format("  %s | %s %s-%s",
-                                    s.getCourse().getCode(),
-                                    s.getSlot().getDate(),
-                                    s.getSlot().getStartTime(),
-                                    s.getSlot().getEndTime())));
-                    lines.add("");
-                });
-            }
-            case "By Student" -> {
-                for (Student st : schedule.getStudents()) {
-                    List<ExamSession> list = sessions.stream()
-                            .filter(es -> es.getCourse().getStudents().contains(st))
-                            .sorted(Comparator.comparing((ExamSession s) -> s.getSlot().getDate())
-                                    .thenComparing(s -> s.getSlot().getStartTime()))
-                            .toList();
-
-                    lines.add("== Student: " + st.getId() + " ==");
-                    if (list.isEmpty()) {
-                        lines.add("  (No exams)");
-                    } else {
-                        for (ExamSession s : list) {
-                            lines.add(String.format("  %s | %s %s-%s | %s",
-                                    s.getCourse().getCode(),
-                                    s.getSlot().getDate(),
-                                    s.getSlot().getStartTime(),
-                                    s.getSlot().getEndTime(),
-                                    s.getClassroom().getName()));
-                        }
-                    }
-                    lines.add("");
-                }
-            }
-            case "By Day" -> {
-                Map<LocalDate, List<ExamSession>> map = sessions.stream()
-                        .collect(Collectors.groupingBy(s -> s.getSlot().getDate()));
-                map.keySet().stream().sorted().forEach(day -> {
-                    lines.add("== " + day + " ==");
-                    map.get(day).stream()
-                            .sorted(Comparator.comparing((ExamSession s) -> s.getSlot().getStartTime()))
-                            .forEach(s -> lines.add(String.format("  %s-%s | %s | %s",
-                                    s.getSlot().getStartTime(),
-                                    s.getSlot().getEndTime(),
-                                    s.getCourse().getCode(),
-                                    s.getClassroom().getName())));
-                    lines.add("");
-                });
-            }
-            default -> {
-                lines.add("Course | Classroom | Date | Start-End");
-                for (ExamSession s : sessions) {
-                    lines.add(String.format("%s | %s | %s | %s-%s",
-                            s.getCourse().getCode(),
-                            s.getClassroom().getName(),
-                            s.getSlot().getDate(),
-                            s.getSlot().getStartTime(),
-                            s.getSlot().getEndTime()));
+        ScheduleSnapshot snapshot = schedule.snapshot();
+        Task<Integer> task = new Task<>() {
+            @Override
+            protected Integer call() throws Exception {
+                try (OutputStream zip = new BufferedOutputStream(new FileOutputStream(out))) {
+                    return PersonalTimetables.exportZip(snapshot, zip, EnumSet.allOf(PersonalTimetables.Format.class),
+                            Runtime.getRuntime().availableProcessors());
                 }
             }
-        }
-
-        lines.add("--------------------------------------------------------------------------");
-        lines.add("Total sessions: " + sessions.size());
-        return lines;
-    }
-
-    private List<String> wrapLine(String s, int maxLen) {
-        List<String> out = new ArrayList<>();
-        if (s == null) return out;
-        String text = s;
-
-        while (text.length() > maxLen) {
-            out.add(text.substring(0, maxLen));
-            text = text.substring(maxLen);
-        }
-        out.add(text);
-        return out;
+        };
+        task.setOnSucceeded(e -> {
+            setStatus("Exported to " + out.getName());
+            showInfo("Export", task.getValue() + " files for " + snapshot.getStudents().size()
+                    + " students written to " + out.getName());
+        });
+        task.setOnFailed(e -> {
+            task.getException().printStackTrace();
+            showError("Export failed", task.getException().toString());
+        });
+        setStatus("Exporting personal timetables to " + out.getName() + "...");
+        Thread worker = new Thread(task, "schedule-export");
+        worker.setDaemon(true);
+        worker.start();
     }
 
-
     @FXML
     private void handleViewByClassroom(ActionEvent event) {
         StringBuilder sb = new StringBuilder();
-        Map<String, List<ExamSession>> map = schedule.getExamSessions().stream()
-                .collect(Collectors.groupingBy(s -> s.getClassroom().getName()));
-        map.keySet().stream().sorted().forEach(room -> {
+        schedule.snapshot().views().byRoom().forEach((room, uses) -> {
             sb.append("== ").append(room).append(" ==\n");
-            map.get(room).stream()
-                    .sorted(Comparator.comparing((ExamSession s) -> s.getSlot().getDate())
-                            .thenComparing(s -> s.getSlot().getStartTime()))
-                    .forEach(s -> sb.append(String.format("  %s | %s %s-%s\n",
-                            s.getCourse().getCode(),
-                            s.getSlot().getDate(),
-                            s.getSlot().getStartTime(),
-                            s.getSlot().getEndTime())));
+            for (ScheduleViews.RoomUse u : uses) {
+                ExamSession s = u.getSession();
+                sb.append(String.format("  %s | %s %s-%s%s\n",
+                        s.getCourse().getCode(),
+                        s.getSlot().getDate(),
+                        s.getSlot().getStartTime(),
+                        s.getSlot().getEndTime(),
+                        s.isSplit() ? " (split: " + s.getRoomNames() + ")" : ""));
+            }
             sb.append("\n");
         });
         showLargeText("Schedule by Classroom", sb.toString());
@@ -563,17 +664,14 @@ public class MainController {
         String sid = dlg.showAndWait().orElse(null);
         if (sid == null || sid.trim().isEmpty()) return;
 
-        Student st = schedule.getStudentsMap().get(sid.trim());
+        Student st = schedule.getStudent(sid.trim());
         if (st == null) {
             showError("Not found", "Student ID not found: " + sid);
             return;
         }
 
-        List<ExamSession> sessions = schedule.getExamSessions().stream()
-                .filter(s -> s.getCourse().getStudents().contains(st))
-                .sorted(Comparator.comparing((ExamSession s) -> s.getSlot().getDate())
-                        .thenComparing(s -> s.getSlot().getStartTime()))
-                .toList();
+        ScheduleSnapshot snapshot = schedule.snapshot();
+        List<ExamSession> sessions = snapshot.views().inTimeOrder(snapshot.sessionsOf(st));
 
         StringBuilder sb = new StringBuilder();
         sb.append("Student: ").append(st.getId()).append("\n\n");
@@ -583,39 +681,60 @@ public class MainController {
                     s.getSlot().getDate(),
                     s.getSlot().getStartTime(),
                     s.getSlot().getEndTime(),
-                    s.getClassroom().getName()));
+                    s.getRoomNames()));
         }
         if (sessions.isEmpty()) sb.append("(No exams scheduled)\n");
         showLargeText("Student Schedule", sb.toString());
     }
 
+    @FXML
+    private void handleViewGrid(ActionEvent event) {
+        if (busyGenerating("Timetable Grid")) return;
+        if (schedule.snapshot().getExamSessions().isEmpty()) {
+            showInfo("Timetable Grid", "No sessions to show. Generate a schedule first.");
+            return;
+        }
+        boolean moved = ScheduleGridView.show(getOwnerStage(), schedule, () -> {
+            ScheduleScorer.score(schedule.snapshot(), new ScoreWeights());
+            refreshScheduleTable();
+            setStatus("Session moved. " + summaryText());
+        });
+        // All moves of one grid session become a single history version
+        if (!moved) return;
+        try {
+            DatabaseManager.recordScheduleVersion(schedule.snapshot().getExamSessions());
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            showError("History not updated", e.toString());
+        }
+    }
+
     @FXML
     private void handleViewByDay(ActionEvent event) {
         StringBuilder sb = new StringBuilder();
-        Map<String, List<ExamSession>> map = schedule.getExamSessions().stream()
-                .collect(Collectors.groupingBy(s -> s.getSlot().getDate().toString()));
-        map.keySet().stream().sorted().forEach(day -> {
+        schedule.snapshot().views().byDay().forEach((day, sessions) -> {
             sb.append("== ").append(day).append(" ==\n");
-            map.get(day).stream()
-                    .sorted(Comparator.comparing((ExamSession s) -> s.getSlot().getStartTime()))
-                    .forEach(s -> sb.append(String.format("  %s-%s | %s | %s\n",
-                            s.getSlot().getStartTime(),
-                            s.getSlot().getEndTime(),
-                            s.getCourse().getCode(),
-                            s.getClassroom().getName())));
+            for (ExamSession s : sessions) {
+                sb.append(String.format("  %s-%s | %s | %s\n",
+                        s.getSlot().getStartTime(),
+                        s.getSlot().getEndTime(),
+                        s.getCourse().getCode(),
+                        s.getRoomNames()));
+            }
             sb.append("\n");
         });
         showLargeText("Schedule by Day", sb.toString());
     }
     @FXML
     private void handleManageClassrooms(ActionEvent event) {
+        if (busyGenerating("Manage Classrooms")) return;
         Stage owner = getOwnerStage();
         Stage stage = new Stage();
         stage.setTitle("Manage Classrooms");
         stage.initOwner(owner);
         stage.initModality(Modality.WINDOW_MODAL);
 
-        ObservableList<Classroom> rooms = FXCollections.observableArrayList(DatabaseManager.loadClassrooms());
+        ObservableList<Classroom> rooms = FXCollections.observableArrayList(sortedClassrooms());
         TableView<Classroom> table = new TableView<>(rooms);
 
         TableColumn<Classroom, String> idCol = new TableColumn<>("ID");
@@ -636,9 +755,8 @@ public class MainController {
         add.setOnAction(e -> {
             ClassroomForm form = ClassroomForm.show(owner, null);
             if (form == null) return;
-            DatabaseManager.upsertClassroom(form.id, form.capacity);
-            rooms.setAll(DatabaseManager.loadClassrooms());
-            reloadFromDb();
+            applyChange(ModelChange.upsertClassroom(form.id, form.capacity));
+            rooms.setAll(sortedClassrooms());
         });
 
         edit.setOnAction(e -> {
@@ -646,18 +764,16 @@ public class MainController {
             if (selected == null) return;
             ClassroomForm form = ClassroomForm.show(owner, selected);
             if (form == null) return;
-            DatabaseManager.upsertClassroom(form.id, form.capacity);
-            rooms.setAll(DatabaseManager.loadClassrooms());
-            reloadFromDb();
+            applyChange(ModelChange.upsertClassroom(form.id, form.capacity));
+            rooms.setAll(sortedClassrooms());
         });
 
         del.setOnAction(e -> {
             Classroom selected = table.getSelectionModel().getSelectedItem();
             if (selected == null) return;
             if (!confirm("Delete classroom", "Delete " + selected.getName() + "?")) return;
-            DatabaseManager.deleteClassroom(selected.getName());
-            rooms.setAll(DatabaseManager.loadClassrooms());
-            reloadFromDb();
+            applyChange(ModelChange.deleteClassroom(selected.getName()));
+            rooms.setAll(sortedClassrooms());
         });
 
         HBox buttons = new HBox(10, add, edit, del);
@@ -669,13 +785,14 @@ public class MainController {
 
     @FXML
     private void handleManageStudents(ActionEvent event) {
+        if (busyGenerating("Manage Students")) return;
         Stage owner = getOwnerStage();
         Stage stage = new Stage();
         stage.setTitle("Manage Students");
         stage.initOwner(owner);
         stage.initModality(Modality.WINDOW_MODAL);
 
-        ObservableList<Student> students = FXCollections.observableArrayList(DatabaseManager.loadStudents());
+        ObservableList<Student> students = FXCollections.observableArrayList(sortedStudents());
         TableView<Student> table = new TableView<>(students);
 
         TableColumn<Student, String> idCol = new TableColumn<>("Student ID");
@@ -689,18 +806,16 @@ public class MainController {
         add.setOnAction(e -> {
             String id = prompt("Add Student", "Student ID:");
             if (id == null || id.trim().isEmpty()) return;
-            DatabaseManager.upsertStudent(id.trim());
-            students.setAll(DatabaseManager.loadStudents());
-            reloadFromDb();
+            applyChange(ModelChange.upsertStudent(id.trim()));
+            students.setAll(sortedStudents());
         });
 
         del.setOnAction(e -> {
             Student selected = table.getSelectionModel().getSelectedItem();
             if (selected == null) return;
             if (!confirm("Delete student", "Delete " + selected.getId() + "?")) return;
-            DatabaseManager.deleteStudent(selected.getId());
-            students.setAll(DatabaseManager.loadStudents());
-            reloadFromDb();
+            applyChange(ModelChange.deleteStudent(selected.getId()));
+            students.setAll(sortedStudents());
         });
 
         HBox buttons = new HBox(10, add, del);
@@ -712,13 +827,14 @@ public class MainController {
 
     @FXML
     private void handleManageCourses(ActionEvent event) {
+        if (busyGenerating("Manage Courses")) return;
         Stage owner = getOwnerStage();
         Stage stage = new Stage();
         stage.setTitle("Manage Courses");
         stage.initOwner(owner);
         stage.initModality(Modality.WINDOW_MODAL);
 
-        ObservableList<Course> courses = FXCollections.observableArrayList(DatabaseManager.loadCoursesShallow());
+        ObservableList<Course> courses = FXCollections.observableArrayList(sortedCourses());
         TableView<Course> table = new TableView<>(courses);
 
         TableColumn<Course, String> codeCol = new TableColumn<>("Course Code");
@@ -732,18 +848,16 @@ public class MainController {
         add.setOnAction(e -> {
             String code = prompt("Add Course", "Course code:");
             if (code == null || code.trim().isEmpty()) return;
-            DatabaseManager.upsertCourse(code.trim());
-            courses.setAll(DatabaseManager.loadCoursesShallow());
-            reloadFromDb();
+            applyChange(ModelChange.upsertCourse(code.trim()));
+            courses.setAll(sortedCourses());
         });
 
         del.setOnAction(e -> {
             Course selected = table.getSelectionModel().getSelectedItem();
             if (selected == null) return;
             if (!confirm("Delete course", "Delete " + selected.getCode() + "?")) return;
-            DatabaseManager.deleteCourse(selected.getCode());
-            courses.setAll(DatabaseManager.loadCoursesShallow());
-            reloadFromDb();
+            applyChange(ModelChange.deleteCourse(selected.getCode()));
+            courses.setAll(sortedCourses());
         });
 
         HBox buttons = new HBox(10, add, del);
@@ -755,13 +869,14 @@ public class MainController {
 
     @FXML
     private void handleManageEnrollments(ActionEvent event) {
+        if (busyGenerating("Manage Enrollments")) return;
         Stage owner = getOwnerStage();
         Stage stage = new Stage();
         stage.setTitle("Manage Enrollments");
         stage.initOwner(owner);
         stage.initModality(Modality.WINDOW_MODAL);
 
-        ObservableList<Course> courses = FXCollections.observableArrayList(DatabaseManager.loadCoursesShallow());
+        ObservableList<Course> courses = FXCollections.observableArrayList(sortedCourses());
         ComboBox<Course> courseBox = new ComboBox<>(courses);
         courseBox.setPromptText("Select course");
         courseBox.setMaxWidth(Double.MAX_VALUE);
@@ -772,46 +887,42 @@ public class MainController {
         sidCol.setCellValueFactory(c -> new SimpleStringProperty(c.getValue()));
         table.getColumns().add(sidCol);
         table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        table.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
 
-        courseBox.setOnAction(e -> {
+        Runnable showEnrolled = () -> {
             Course c = courseBox.getValue();
             if (c == null) return;
-            enrolled.setAll(DatabaseManager.loadStudentIdsForCourse(c.getCode()));
-        });
+            enrolled.setAll(c.getStudents().stream().map(Student::getId).sorted().toList());
+        };
+        courseBox.setOnAction(e -> showEnrolled.run());
 
-        Button add = new Button("Add Student");
-        Button remove = new Button("Remove");
+        Button add = new Button("Add Students...");
+        Button remove = new Button("Remove Selected");
 
         add.setOnAction(e -> {
             Course c = courseBox.getValue();
             if (c == null) return;
 
-            List<Student> all = DatabaseManager.loadStudents();
-            List<String> already = DatabaseManager.loadStudentIdsForCourse(c.getCode());
-            List<String> candidates = all.stream()
+            // Enrolment lists answer contains() in O(1), so the difference is one pass over all students
+            List<String> candidates = schedule.getStudents().stream()
+                    .filter(st -> !c.getStudents().contains(st))
                     .map(Student::getId)
-                    .filter(id -> !already.contains(id))
                     .sorted().toList();
+            List<String> picked = pickStudents(owner, "Enroll students in " + c.getCode(), candidates);
+            if (picked.isEmpty()) return;
 
-            ChoiceDialog<String> pick = new ChoiceDialog<>(candidates.isEmpty() ? null : candidates.get(0), candidates);
-            pick.setTitle("Add Enrollment");
-            pick.setHeaderText("Select student to enroll in " + c.getCode());
-            pick.initOwner(owner);
-            String sid = pick.showAndWait().orElse(null);
-            if (sid == null) return;
-
-            DatabaseManager.addEnrollment(sid, c.getCode());
-            enrolled.setAll(DatabaseManager.loadStudentIdsForCourse(c.getCode()));
-            reloadFromDb();
+            applyEnrollments(c, picked, List.of());
+            showEnrolled.run();
         });
 
         remove.setOnAction(e -> {
             Course c = courseBox.getValue();
-            String sid = table.getSelectionModel().getSelectedItem();
-            if (c == null || sid == null) return;
-            DatabaseManager.removeEnrollment(sid, c.getCode());
-            enrolled.setAll(DatabaseManager.loadStudentIdsForCourse(c.getCode()));
-            reloadFromDb();
+            List<String> picked = List.copyOf(table.getSelectionModel().getSelectedItems());
+            if (c == null || picked.isEmpty()) return;
+            if (!confirm("Remove enrollments", "Remove " + picked.size() + " student(s) from " + c.getCode() + "?")) return;
+
+            applyEnrollments(c, List.of(), picked);
+            showEnrolled.run();
         });
 
         HBox top = new HBox(10, new Label("Course:"), courseBox);
@@ -825,6 +936,135 @@ public class MainController {
         stage.showAndWait();
     }
 
+    // One transaction for the database, then the same change patched into the loaded model
+    private void applyEnrollments(Course course, List<String> added, List<String> removed) {
+        try {
+            DatabaseManager.updateEnrollments(course.getCode(), added, removed);
+        } catch (RuntimeException ex) {
+            showError("Enrollment update failed", ex.getMessage());
+            return;
+        }
+        schedule.updateEnrollments(course,
+                added.stream().map(schedule::getStudent).filter(Objects::nonNull).toList(),
+                removed.stream().map(schedule::getStudent).filter(Objects::nonNull).toList());
+        refreshScheduleTable();
+        setStatus("Enrollments updated (+" + added.size() + " / -" + removed.size() + "). " + summaryText());
+    }
+
+    private List<String> pickStudents(Stage owner, String header, List<String> candidates) {
+        Dialog<List<String>> dialog = new Dialog<>();
+        dialog.setTitle("Add Enrollments");
+        dialog.setHeaderText(header);
+        dialog.initOwner(owner);
+        dialog.initModality(Modality.WINDOW_MODAL);
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+
+        ObservableList<String> all = FXCollections.observableArrayList(candidates);
+        FilteredList<String> shown = new FilteredList<>(all);
+        ListView<String> list = new ListView<>(shown);
+        list.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        list.setPrefHeight(320);
+
+        TextField filter = new TextField();
+        filter.setPromptText("Filter student IDs");
+        filter.textProperty().addListener((obs, oldV, newV) -> {
+            String q = newV == null ? "" : newV.trim().toLowerCase(Locale.ROOT);
+            shown.setPredicate(id -> q.isEmpty() || id.toLowerCase(Locale.ROOT).contains(q));
+        });
+
+        Label hint = new Label("Ctrl/Shift-click to pick several; Ctrl+A picks all shown.");
+        dialog.getDialogPane().setContent(new VBox(8, filter, list, hint));
+        dialog.setResultConverter(bt -> bt == ButtonType.OK
+                ? List.copyOf(list.getSelectionModel().getSelectedItems()) : List.of());
+        return dialog.showAndWait().orElse(List.of());
+    }
+
+    @FXML
+    private void handleManageSlotCalendar(ActionEvent event) {
+        Dialog<SlotCalendar> dialog = new Dialog<>();
+        dialog.setTitle("Slot Calendar");
+        dialog.setHeaderText("One line per weekday (or range) with its exam periods, plus HOLIDAY lines.\n"
+                + "Example:  MON-FRI = 09:00-11:00, 11:30-13:30   |   HOLIDAY = 2026-01-01");
+        dialog.initOwner(getOwnerStage());
+        dialog.initModality(Modality.WINDOW_MODAL);
+
+        ButtonType save = new ButtonType("Save", ButtonBar.ButtonData.OK_DONE);
+        ButtonType reset = new ButtonType("Defaults", ButtonBar.ButtonData.LEFT);
+        dialog.getDialogPane().getButtonTypes().addAll(save, reset, ButtonType.CANCEL);
+
+        TextArea area = new TextArea(DatabaseManager.loadSlotCalendar().format());
+        area.setPrefRowCount(12);
+        dialog.getDialogPane().setContent(area);
+
+        dialog.getDialogPane().lookupButton(reset).addEventFilter(ActionEvent.ACTION, e -> {
+            area.setText(SlotCalendar.defaultCalendar().format());
+            e.consume();
+        });
+        dialog.getDialogPane().lookupButton(save).addEventFilter(ActionEvent.ACTION, e -> {
+            try {
+                SlotCalendar.parse(area.getText());
+            } catch (IllegalArgumentException ex) {
+                showError("Invalid calendar", ex.getMessage());
+                e.consume();
+            }
+        });
+        dialog.setResultConverter(bt -> bt == save ? SlotCalendar.parse(area.getText()) : null);
+
+        SlotCalendar cal = dialog.showAndWait().orElse(null);
+        if (cal == null) return;
+        DatabaseManager.saveSlotCalendar(cal);
+        setStatus("Slot calendar saved. " + summaryText());
+    }
+
+    private static class ScenarioForm {
+
+        static Scenario show(Stage owner, List<Classroom> rooms) {
+            Dialog<Scenario> dialog = new Dialog<>();
+            dialog.setTitle("Add Scenario");
+            dialog.initOwner(owner);
+            dialog.initModality(Modality.WINDOW_MODAL);
+
+            ButtonType ok = new ButtonType("Save", ButtonBar.ButtonData.OK_DONE);
+            dialog.getDialogPane().getButtonTypes().addAll(ok, ButtonType.CANCEL);
+
+            TextField nameField = new TextField();
+            DatePicker startPicker = new DatePicker(LocalDate.now());
+            DatePicker endPicker = new DatePicker(LocalDate.now().plusWeeks(2));
+            ListView<Classroom> excluded = new ListView<>(FXCollections.observableArrayList(rooms));
+            excluded.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+            excluded.setPrefHeight(140);
+            CheckBox split = new CheckBox("Split large exams across rooms");
+            CheckBox share = new CheckBox("Let small exams share a room");
+            CheckBox exact = new CheckBox("Exact solver");
+
+            GridPane grid = new GridPane();
+            grid.setHgap(10);
+            grid.setVgap(10);
+            grid.addRow(0, new Label("Name"), nameField);
+            grid.addRow(1, new Label("Start"), startPicker);
+            grid.addRow(2, new Label("End"), endPicker);
+            grid.addRow(3, new Label("Leave out rooms"), excluded);
+            grid.add(new VBox(6, split, share, exact), 1, 4);
+            dialog.getDialogPane().setContent(grid);
+
+            dialog.setResultConverter(bt -> {
+                if (bt != ok) return null;
+                String name = nameField.getText() == null ? "" : nameField.getText().trim();
+                LocalDate start = startPicker.getValue();
+                LocalDate end = endPicker.getValue();
+                if (name.isEmpty() || start == null || end == null || end.isBefore(start)) return null;
+                Scenario sc = new Scenario(name, start, end);
+                excluded.getSelectionModel().getSelectedItems().forEach(r -> sc.excludeRoom(r.getName()));
+                sc.setAllowRoomSplitting(split.isSelected());
+                sc.setAllowRoomSharing(share.isSelected());
+                if (exact.isSelected()) sc.setEngine(SchedulerConfig.Engine.EXACT);
+                return sc;
+            });
+
+            return dialog.showAndWait().orElse(null);
+        }
+    }
+
     private static class ClassroomForm {
         final String id;
         final int capacity;
@@ -868,97 +1108,41 @@ public class MainController {
         }
     }
 
-    private void reloadFromDb() {
+    // Writes the change to the database, then patches the loaded model instead of reloading it
+    private void applyChange(ModelChange change) {
         try {
-            DatabaseManager.loadIntoSchedule(schedule);
-            refreshScheduleTable();
-            setStatus("Updated. " + summaryText());
-        } catch (Exception e) {
+            DatabaseManager.apply(change);
+        } catch (RuntimeException e) {
             e.printStackTrace();
-            showError("Reload failed", e.toString());
-        }
-    }
-    private static class ValidationResult {
-        final int issues;
-        final String report;
-        ValidationResult(int issues, String report) {
-            this.issues = issues;
-            this.report = report;
+            showError("Update failed", e.getMessage());
+            return;
         }
+        schedule.apply(List.of(change));
+        refreshScheduleTable();
+        setStatus("Updated. " + summaryText());
     }
 
-    private ValidationResult buildValidationReport() {
-        StringBuilder report = new StringBuilder();
-        int issues = 0;
-
-        Map<String, Set<String>> roomSlot = new HashMap<>();
-        for (ExamSession s : schedule.getExamSessions()) {
-            String key = s.getClassroom().getName();
-            String slot = s.getSlot().getDate() + " " + s.getSlot().getStartTime() + "-" + s.getSlot().getEndTime();
-            roomSlot.putIfAbsent(key, new HashSet<>());
-            if (!roomSlot.get(key).add(slot)) {
-                issues++;
-                report.append("Room double-booked: ").append(key).append(" @ ").append(slot).append("\n");
-            }
-            if (s.getClassroom().getCapacity() < s.getCourse().getStudents().size()) {
-                issues++;
-                report.append("Capacity issue: ").append(s.getCourse().getCode())
-                        .append(" in ").append(key)
-                        .append(" (").append(s.getCourse().getStudents().size())
-                        .append(" students > ").append(s.getClassroom().getCapacity()).append(")\n");
-            }
-        }
-
-        for (Student st : schedule.getStudents()) {
-            List<ExamSession> sessions = schedule.getExamSessions().stream()
-                    .filter(s -> s.getCourse().getStudents().contains(st))
-                    .sorted(Comparator.comparing((ExamSession s) -> s.getSlot().getDate())
-                            .thenComparing(s -> s.getSlot().getStartTime()))
-                    .toList();
-
-            Map<String, Integer> perDay = new HashMap<>();
-            for (int i = 0; i < sessions.size(); i++) {
-                ExamSlot slot = sessions.get(i).getSlot();
-                String day = slot.getDate().toString();
-                perDay.put(day, perDay.getOrDefault(day, 0) + 1);
-
-                if (i > 0) {
-                    ExamSlot prev = sessions.get(i - 1).getSlot();
-                    if (prev.getDate().equals(slot.getDate())) {
-                        int a = slotIndex(prev);
-                        int b = slotIndex(slot);
-                        if (a >= 0 && b >= 0 && Math.abs(a - b) == 1) {
-                            issues++;
-                            report.append("Back-to-back exams: ").append(st.getId())
-                                    .append(" (").append(sessions.get(i - 1).getCourse().getCode())
-                                    .append(" then ").append(sessions.get(i).getCourse().getCode()).append(") on ")
-                                    .append(day).append("\n");
-                        }
-                    }
-                }
-            }
+    // Same order the database lists use
+    private List<Classroom> sortedClassrooms() {
+        return schedule.getClassrooms().stream().sorted(Comparator.comparing(Classroom::getName)).toList();
+    }
 
-            for (var e : perDay.entrySet()) {
-                if (e.getValue() > 2) {
-                    issues++;
-                    report.append("More than 2 exams/day: ").append(st.getId())
-                            .append(" has ").append(e.getValue()).append(" exams on ").append(e.getKey()).append("\n");
-                }
-            }
-        }
+    private List<Student> sortedStudents() {
+        return schedule.getStudents().stream().sorted(Comparator.comparing(Student::getId)).toList();
+    }
 
-        if (issues == 0) return new ValidationResult(0, "No issues found. ✅");
-        return new ValidationResult(issues, report.toString());
+    private List<Course> sortedCourses() {
+        return schedule.getCourses().stream().sorted(Comparator.comparing(Course::getCode)).toList();
     }
 
     @FXML
     private void handleValidateSchedule(ActionEvent event) {
-        if (schedule.getExamSessions().isEmpty()) {
+        if (schedule.snapshot().getExamSessions().isEmpty()) {
             showInfo("Validate Schedule", "No sessions to validate. Generate a schedule first.");
             return;
         }
 
-        ValidationResult vr = buildValidationReport();
+        ScheduleValidator.ValidationResult vr = ScheduleValidator.validate(schedule);
         if (vr.issues == 0) {
             showInfo("Validate Schedule", "No issues found. ✅");
         } else {
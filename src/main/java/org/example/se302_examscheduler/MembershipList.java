@@ -0,0 +1,100 @@
+package org.example.se302_examscheduler;
+
+import java.util.*;
+
+// Insertion-ordered list with a hash count per element, so contains() is O(1) while iteration
+// order stays exactly as added. Used for enrolments, which are checked far more often than changed.
+final class MembershipList<E> extends AbstractList<E> implements RandomAccess {
+
+    private final ArrayList<E> items = new ArrayList<>();
+    private final Map<E, Integer> counts = new HashMap<>();
+
+    @Override
+    public E get(int i) {
+        return items.get(i);
+    }
+
+    @Override
+    public int size() {
+        return items.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return counts.containsKey(o);
+    }
+
+    @Override
+    public boolean add(E e) {
+        items.add(e);
+        modCount++;
+        counts.merge(e, 1, Integer::sum);
+        return true;
+    }
+
+    @Override
+    public void add(int i, E e) {
+        items.add(i, e);
+        modCount++;
+        counts.merge(e, 1, Integer::sum);
+    }
+
+    @Override
+    public E set(int i, E e) {
+        E old = items.set(i, e);
+        uncount(old);
+        counts.merge(e, 1, Integer::sum);
+        return old;
+    }
+
+    @Override
+    public E remove(int i) {
+        E old = items.remove(i);
+        modCount++;
+        uncount(old);
+        return old;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!contains(o)) return false;
+        return super.remove(o);
+    }
+
+    // One pass over the list instead of a shift per removed element
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        Collection<?> gone = c instanceof Set ? c : new HashSet<>(c);
+        boolean changed = items.removeIf(e -> {
+            if (!gone.contains(e)) return false;
+            uncount(e);
+            return true;
+        });
+        if (changed) modCount++;
+        return changed;
+    }
+
+    @Override
+    public void clear() {
+        items.clear();
+        counts.clear();
+        modCount++;
+    }
+
+    // A read-only copy of base with the new members of added appended and removed dropped, in one
+    // pass. Rosters are replaced by such copies instead of being edited, so a reader still iterating
+    // the old list is never disturbed.
+    static <E> List<E> edited(List<E> base, Collection<? extends E> added, Collection<?> removed) {
+        MembershipList<E> next = new MembershipList<>();
+        for (E e : base) next.add(e);
+        if (!removed.isEmpty()) next.removeAll(removed);
+        for (E e : added) {
+            if (!next.contains(e)) next.add(e);
+        }
+        return Collections.unmodifiableList(next);
+    }
+
+    private void uncount(E e) {
+        counts.computeIfPresent(e, (k, n) -> n == 1 ? null : n - 1);
+    }
+}
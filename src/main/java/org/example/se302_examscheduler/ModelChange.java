@@ -0,0 +1,83 @@
+package org.example.se302_examscheduler;
+
+// One edit to the base data. DatabaseManager.apply writes it durably and Schedule.apply patches
+// the loaded model with it, so a CRUD action never needs a full reload.
+public final class ModelChange {
+
+    public enum Kind {
+        UPSERT_CLASSROOM,
+        DELETE_CLASSROOM,
+        UPSERT_STUDENT,
+        DELETE_STUDENT,
+        UPSERT_COURSE,
+        DELETE_COURSE,
+        ENROLL,
+        UNENROLL
+    }
+
+    private final Kind kind;
+    private final String key;
+    private final String courseCode;
+    private final int capacity;
+
+    private ModelChange(Kind kind, String key, String courseCode, int capacity) {
+        this.kind = kind;
+        this.key = key;
+        this.courseCode = courseCode;
+        this.capacity = capacity;
+    }
+
+    public static ModelChange upsertClassroom(String name, int capacity) {
+        return new ModelChange(Kind.UPSERT_CLASSROOM, name, null, capacity);
+    }
+
+    public static ModelChange deleteClassroom(String name) {
+        return new ModelChange(Kind.DELETE_CLASSROOM, name, null, 0);
+    }
+
+    public static ModelChange upsertStudent(String id) {
+        return new ModelChange(Kind.UPSERT_STUDENT, id, null, 0);
+    }
+
+    public static ModelChange deleteStudent(String id) {
+        return new ModelChange(Kind.DELETE_STUDENT, id, null, 0);
+    }
+
+    public static ModelChange upsertCourse(String code) {
+        return new ModelChange(Kind.UPSERT_COURSE, code, code, 0);
+    }
+
+    public static ModelChange deleteCourse(String code) {
+        return new ModelChange(Kind.DELETE_COURSE, code, code, 0);
+    }
+
+    public static ModelChange enroll(String studentId, String courseCode) {
+        return new ModelChange(Kind.ENROLL, studentId, courseCode, 0);
+    }
+
+    public static ModelChange unenroll(String studentId, String courseCode) {
+        return new ModelChange(Kind.UNENROLL, studentId, courseCode, 0);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    // Classroom name, student id or course code, depending on the kind
+    public String getKey() {
+        return key;
+    }
+
+    public String getCourseCode() {
+        return courseCode;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public String toString() {
+        return kind + " " + key + (kind == Kind.ENROLL || kind == Kind.UNENROLL ? " / " + courseCode : "");
+    }
+}
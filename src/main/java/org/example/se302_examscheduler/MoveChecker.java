@@ -0,0 +1,159 @@
+package org.example.se302_examscheduler;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Answers "may this session move to that slot and room?" for manual edits. Student slots and
+// room usage are indexed once per snapshot and patched by apply(), so one check only walks the
+// course's students and their exams.
+final class MoveChecker {
+
+    enum Verdict {
+        OK("Free"),
+        UNCHANGED("Current placement"),
+        ROOM_TOO_SMALL("Room is too small for the course"),
+        ROOM_TAKEN("Room already has an exam in this slot"),
+        ROOM_FULL("Shared room has too few seats left"),
+        CLASH("A student already has an exam in this slot"),
+        CONSECUTIVE("A student would sit back-to-back exams"),
+        DAILY_LIMIT("A student would have more than 2 exams that day");
+
+        private final String text;
+
+        Verdict(String text) {
+            this.text = text;
+        }
+
+        String getText() {
+            return text;
+        }
+    }
+
+    private final List<ExamSlot> slots;
+    private final List<Classroom> rooms;
+    private final boolean sharing;
+    private final Map<ExamSlot, Integer> slotIndex = new HashMap<>();
+    private final Map<Classroom, Integer> roomIndex = new HashMap<>();
+    private final int[] seatsUsed;      // slot x room
+    private final int[] sessionsIn;     // slot x room
+    private final Map<Student, int[]> studentSlots = new HashMap<>();    // [count, slot...]
+
+    MoveChecker(ScheduleSnapshot schedule) {
+        // Every slot of the window, occupied or not; a reloaded timetable gets the same slots from the
+        // saved window (DatabaseManager.loadIntoSchedule), so empty slots stay valid targets
+        this.slots = schedule.getExamSlots();
+        this.rooms = schedule.getClassrooms();
+        this.sharing = schedule.isRoomSharing();
+        for (int i = 0; i < slots.size(); i++) slotIndex.put(slots.get(i), i);
+        for (int i = 0; i < rooms.size(); i++) roomIndex.put(rooms.get(i), i);
+        this.seatsUsed = new int[slots.size() * rooms.size()];
+        this.sessionsIn = new int[slots.size() * rooms.size()];
+        for (ExamSession s : schedule.getExamSessions()) add(s, 1);
+    }
+
+    List<ExamSlot> slots() {
+        return slots;
+    }
+
+    List<Classroom> rooms() {
+        return rooms;
+    }
+
+    // Dropping a session on its own primary room keeps its room layout; any other room takes it whole.
+    static ExamSession moved(ExamSession session, ExamSlot slot, Classroom room) {
+        if (room == session.getClassroom()) return session.withSlot(slot);
+        return new ExamSession(session.getCourse(), room, slot);
+    }
+
+    Verdict check(ExamSession session, ExamSlot slot, Classroom room) {
+        return check(session, moved(session, slot, room));
+    }
+
+    Verdict check(ExamSession current, ExamSession proposed) {
+        Integer to = slotIndex.get(proposed.getSlot());
+        if (to == null) throw new IllegalArgumentException("Slot is not part of this schedule: " + proposed.getSlot());
+        Integer from = slotIndex.get(current.getSlot());
+        boolean sameSlot = from != null && from.intValue() == to;
+        if (sameSlot && current.getClassrooms().equals(proposed.getClassrooms())) return Verdict.UNCHANGED;
+
+        Course course = proposed.getCourse();
+        if (proposed.getTotalCapacity() < course.getStudents().size()) return Verdict.ROOM_TOO_SMALL;
+
+        for (int i = 0; i < proposed.getClassrooms().size(); i++) {
+            Classroom room = proposed.getClassrooms().get(i);
+            Integer r = roomIndex.get(room);
+            if (r == null) continue;
+            int cell = to * rooms.size() + r;
+            int others = sessionsIn[cell];
+            int seats = seatsUsed[cell];
+            if (sameSlot && current.getClassrooms().contains(room)) {
+                others--;
+                seats -= current.getSeatsIn(room);
+            }
+            if (!sharing && others > 0) return Verdict.ROOM_TAKEN;
+            if (sharing && seats + proposed.getSeats(i) > room.getCapacity()) return Verdict.ROOM_FULL;
+        }
+
+        ExamSlot target = slots.get(to);
+        for (Student st : course.getStudents()) {
+            int[] taken = studentSlots.get(st);
+            if (taken == null) continue;
+            boolean skippedOwn = false;
+            int examsThatDay = 0;
+            for (int k = 1; k <= taken[0]; k++) {
+                int other = taken[k];
+                // The course's own exam is the one being moved
+                if (!skippedOwn && from != null && other == from) {
+                    skippedOwn = true;
+                    continue;
+                }
+                if (other == to) return Verdict.CLASH;
+                ExamSlot o = slots.get(other);
+                if (o.getDayIndex() != target.getDayIndex()) continue;
+                examsThatDay++;
+                if (o.isConsecutiveWith(target)) return Verdict.CONSECUTIVE;
+            }
+            if (examsThatDay >= 2) return Verdict.DAILY_LIMIT;
+        }
+        return Verdict.OK;
+    }
+
+    // Keeps the indexes in step after the schedule accepted a move
+    void apply(ExamSession old, ExamSession updated) {
+        add(old, -1);
+        add(updated, 1);
+    }
+
+    private void add(ExamSession s, int sign) {
+        Integer slot = slotIndex.get(s.getSlot());
+        if (slot == null) return;
+        for (int i = 0; i < s.getClassrooms().size(); i++) {
+            Integer r = roomIndex.get(s.getClassrooms().get(i));
+            if (r == null) continue;
+            int cell = slot * rooms.size() + r;
+            sessionsIn[cell] += sign;
+            seatsUsed[cell] += sign * s.getSeats(i);
+        }
+        for (Student st : s.getCourse().getStudents()) {
+            int[] taken = studentSlots.get(st);
+            if (sign > 0) {
+                if (taken == null) {
+                    taken = new int[5];
+                } else if (taken[0] + 1 == taken.length) {
+                    taken = Arrays.copyOf(taken, taken.length * 2);
+                }
+                taken[++taken[0]] = slot;
+                studentSlots.put(st, taken);
+            } else if (taken != null) {
+                for (int k = 1; k <= taken[0]; k++) {
+                    if (taken[k] == slot) {
+                        taken[k] = taken[taken[0]--];
+                        break;
+                    }
+                }
+            }
+        }
+    }
+}
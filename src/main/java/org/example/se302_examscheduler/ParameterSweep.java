@@ -0,0 +1,237 @@
+package org.example.se302_examscheduler;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Runs the generator over every combination of start date, end date, room set and strategy on a
+// bounded pool. All runs share the base objects and its course components. Windows shorter than
+// the feasibility bound are not generated at all, and with stopAtMinimal a group (start, rooms,
+// strategy) stops as soon as its shortest window that places every course is known. Courses no room
+// can seat are left out of that test, as no window would ever place them.
+public class ParameterSweep {
+
+    public enum Status {
+        DONE,           // generated
+        BELOW_BOUND,    // fewer exam days than the lower bound; cannot place every course
+        SKIPPED         // a shorter window of the same group was already complete
+    }
+
+    public static class Row {
+        final LocalDate start;
+        final LocalDate end;
+        final String rooms;
+        final SchedulerConfig.Strategy strategy;
+        final int examDays;
+        final int neverFit;
+        Status status = Status.SKIPPED;
+        int sessions;
+        int unscheduled = -1;
+        long score;
+        double millis;
+
+        Row(LocalDate start, LocalDate end, String rooms, SchedulerConfig.Strategy strategy, int examDays,
+            int neverFit) {
+            this.start = start;
+            this.end = end;
+            this.rooms = rooms;
+            this.strategy = strategy;
+            this.examDays = examDays;
+            this.neverFit = neverFit;
+        }
+
+        public LocalDate getStart() {
+            return start;
+        }
+
+        public LocalDate getEnd() {
+            return end;
+        }
+
+        public String getRooms() {
+            return rooms;
+        }
+
+        public SchedulerConfig.Strategy getStrategy() {
+            return strategy;
+        }
+
+        public int getExamDays() {
+            return examDays;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public int getSessions() {
+            return sessions;
+        }
+
+        // -1 unless the window was generated
+        public int getUnscheduled() {
+            return unscheduled;
+        }
+
+        public long getScore() {
+            return score;
+        }
+
+        public double getMillis() {
+            return millis;
+        }
+
+        // Every course that fits some room got an exam
+        public boolean isComplete() {
+            return status == Status.DONE && unscheduled <= neverFit;
+        }
+    }
+
+    private final List<LocalDate> starts = new ArrayList<>();
+    private final List<LocalDate> ends = new ArrayList<>();
+    private final Map<String, Set<String>> roomSets = new LinkedHashMap<>();
+    private final List<SchedulerConfig.Strategy> strategies = new ArrayList<>();
+    private SlotCalendar calendar = SlotCalendar.defaultCalendar();
+    private int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private boolean stopAtMinimal = true;
+
+    public void addStart(LocalDate start) {
+        starts.add(start);
+    }
+
+    public void addEnd(LocalDate end) {
+        ends.add(end);
+    }
+
+    // Every date from first to last inclusive, one run per date
+    public void addEnds(LocalDate first, LocalDate last) {
+        for (LocalDate d = first; !d.isAfter(last); d = d.plusDays(1)) ends.add(d);
+    }
+
+    public void addRoomSet(String name, Set<String> excludedRooms) {
+        roomSets.put(name, Set.copyOf(excludedRooms));
+    }
+
+    public void addStrategy(SchedulerConfig.Strategy strategy) {
+        strategies.add(strategy);
+    }
+
+    public void setCalendar(SlotCalendar calendar) {
+        this.calendar = calendar;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    public void setStopAtMinimal(boolean stopAtMinimal) {
+        this.stopAtMinimal = stopAtMinimal;
+    }
+
+    public List<Row> run(ScheduleSnapshot base) throws InterruptedException {
+        if (starts.isEmpty() || ends.isEmpty()) throw new IllegalStateException("Sweep needs at least one start and one end date");
+        if (roomSets.isEmpty()) roomSets.put("all rooms", Set.of());
+        if (strategies.isEmpty()) strategies.add(SchedulerConfig.Strategy.LARGEST_FIRST);
+        List<LocalDate> sortedEnds = ends.stream().distinct().sorted().toList();
+
+        // The bounds depend on the rooms, not on the window: one analysis per room set
+        Map<String, FeasibilityAnalyzer.Report> bounds = new HashMap<>();
+        for (Map.Entry<String, Set<String>> rs : roomSets.entrySet()) {
+            Schedule probe = Schedule.scenarioOf(base, r -> !rs.getValue().contains(r.getName()));
+            SchedulerConfig config = new SchedulerConfig();
+            config.setCalendar(calendar);
+            bounds.put(rs.getKey(), FeasibilityAnalyzer.analyze(probe, starts.get(0), starts.get(0), config));
+        }
+
+        List<Row> rows = new ArrayList<>();
+        Map<String, Integer> bestDays = new ConcurrentHashMap<>();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "parameter-sweep");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            // Shortest windows first, so a group's minimal window tends to finish before longer ones start
+            for (LocalDate end : sortedEnds) {
+                for (LocalDate start : starts) {
+                    if (end.isBefore(start)) continue;
+                    int days = examDays(start, end);
+                    for (Map.Entry<String, Set<String>> rs : roomSets.entrySet()) {
+                        for (SchedulerConfig.Strategy strategy : strategies) {
+                            FeasibilityAnalyzer.Report bound = bounds.get(rs.getKey());
+                            Row row = new Row(start, end, rs.getKey(), strategy, days, bound.getNeverFit().size());
+                            rows.add(row);
+                            if (days < bound.getMinDays()) {
+                                row.status = Status.BELOW_BOUND;
+                                continue;
+                            }
+                            String group = start + "|" + rs.getKey() + "|" + strategy;
+                            futures.add(pool.submit(() -> runPoint(base, row, rs.getValue(), group, bestDays)));
+                        }
+                    }
+                }
+            }
+            for (Future<?> f : futures) {
+                try {
+                    f.get();
+                } catch (ExecutionException e) {
+                    throw new RuntimeException("Sweep run failed: " + e.getCause(), e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        rows.sort(Comparator.comparing((Row r) -> r.rooms).thenComparing(r -> r.strategy)
+                .thenComparing(r -> r.start).thenComparing(r -> r.end));
+        return rows;
+    }
+
+    private void runPoint(ScheduleSnapshot base, Row row, Set<String> excluded, String group,
+                          Map<String, Integer> bestDays) {
+        if (stopAtMinimal && bestDays.getOrDefault(group, Integer.MAX_VALUE) < row.examDays) return;
+
+        long t0 = System.nanoTime();
+        Schedule work = Schedule.scenarioOf(base, r -> !excluded.contains(r.getName()));
+        SchedulerConfig config = new SchedulerConfig();
+        config.setCalendar(calendar);
+        config.setStrategy(row.strategy);
+        // The sweep's own workers are the parallelism; components fanned out to the common pool
+        // on top of them would leave the thread bound meaningless
+        config.setParallelComponents(false);
+        SchedulingResult result = SchedulingEngine.forConfig(config).generate(work, row.start, row.end, config);
+
+        row.status = Status.DONE;
+        row.sessions = result.getSessions().size();
+        row.unscheduled = result.getUnscheduledCourses().size();
+        row.score = result.getScore();
+        row.millis = (System.nanoTime() - t0) / 1_000_000.0;
+        if (row.isComplete()) bestDays.merge(group, row.examDays, Math::min);
+    }
+
+    private int examDays(LocalDate start, LocalDate end) {
+        List<ExamSlot> slots = calendar.generateSlots(start, end);
+        return slots.isEmpty() ? 0 : slots.get(slots.size() - 1).getDayIndex() + 1;
+    }
+
+    // Shortest complete window per (start, rooms, strategy), or null when none was complete
+    public static Row minimal(List<Row> rows, LocalDate start, String rooms, SchedulerConfig.Strategy strategy) {
+        return rows.stream()
+                .filter(r -> r.isComplete() && r.start.equals(start) && r.rooms.equals(rooms) && r.strategy == strategy)
+                .min(Comparator.comparingInt((Row r) -> r.examDays).thenComparing(r -> r.end))
+                .orElse(null);
+    }
+
+    public static String format(List<Row> rows) {
+        StringBuilder sb = new StringBuilder(String.format(Locale.ROOT, "%-14s %-26s %-10s %-10s %4s %-11s %11s %9s %8s%n",
+                "Rooms", "Strategy", "Start", "End", "Days", "Status", "Unscheduled", "Score", "ms"));
+        for (Row r : rows) {
+            sb.append(String.format(Locale.ROOT, "%-14s %-26s %-10s %-10s %4d %-11s %11s %9s %8s%n",
+                    r.rooms, r.strategy, r.start, r.end, r.examDays, r.status,
+                    r.status == Status.DONE ? String.valueOf(r.unscheduled) : "-",
+                    r.status == Status.DONE ? String.valueOf(r.score) : "-",
+                    r.status == Status.DONE ? String.format(Locale.ROOT, "%.0f", r.millis) : "-"));
+        }
+        return sb.toString();
+    }
+}
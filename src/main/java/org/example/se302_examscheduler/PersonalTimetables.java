@@ -0,0 +1,209 @@
+package org.example.se302_examscheduler;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+// One PDF and/or iCalendar file per student, written into a single zip stream. Students are rendered
+// in fixed-size batches on a worker pool; batches are written in student order as they finish, and
+// at most a few batches per worker are held in memory at any time.
+public final class PersonalTimetables {
+
+    public enum Format {
+        PDF,
+        ICS
+    }
+
+    private static final int BATCH = 256;
+    private static final DateTimeFormatter ICS_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private PersonalTimetables() {}
+
+    private static final class Entry {
+        final String name;
+        final byte[] data;
+
+        Entry(String name, byte[] data) {
+            this.name = name;
+            this.data = data;
+        }
+    }
+
+    // Returns the number of files written
+    public static int exportZip(ScheduleSnapshot schedule, OutputStream out, Set<Format> formats, int threads)
+            throws IOException, InterruptedException {
+        List<Student> students = schedule.getStudents();
+        String stamp = ZonedDateTime.now(ZoneOffset.UTC).format(ICS_TIME) + "Z";
+        warmFonts();
+        // Build the course-to-session index and the time order once, before the workers read them
+        schedule.sessionOf(null);
+        Comparator<ExamSession> byTime = schedule.views().timeOrder();
+
+        int workers = Math.max(1, threads);
+        ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "personal-timetables");
+            t.setDaemon(true);
+            return t;
+        });
+        int files = 0;
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            Deque<Future<List<Entry>>> pending = new ArrayDeque<>();
+            for (int from = 0; from < students.size(); from += BATCH) {
+                int first = from;
+                List<Student> batch = students.subList(from, Math.min(from + BATCH, students.size()));
+                pending.add(pool.submit(() -> render(schedule, batch, first, formats, byTime, stamp)));
+                if (pending.size() >= workers * 2) files += write(zip, pending.poll());
+            }
+            while (!pending.isEmpty()) files += write(zip, pending.poll());
+        } finally {
+            pool.shutdownNow();
+        }
+        return files;
+    }
+
+    private static int write(ZipOutputStream zip, Future<List<Entry>> batch) throws IOException, InterruptedException {
+        List<Entry> entries;
+        try {
+            entries = batch.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Rendering personal timetables failed: " + e.getCause(), e.getCause());
+        }
+        for (Entry e : entries) {
+            zip.putNextEntry(new ZipEntry(e.name));
+            zip.write(e.data);
+            zip.closeEntry();
+        }
+        return entries.size();
+    }
+
+    // first: index of the batch's first student in the snapshot
+    private static List<Entry> render(ScheduleSnapshot schedule, List<Student> batch, int first, Set<Format> formats,
+                                      Comparator<ExamSession> byTime, String stamp) throws IOException {
+        List<Entry> out = new ArrayList<>(batch.size() * formats.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Student st = batch.get(i);
+            List<ExamSession> exams = schedule.sessionsOf(st);
+            exams.sort(byTime);
+            String base = fileName(st.getId(), first + i);
+            if (formats.contains(Format.PDF)) out.add(new Entry("pdf/" + base + ".pdf", pdf(st, exams)));
+            if (formats.contains(Format.ICS)) out.add(new Entry("ics/" + base + ".ics", ics(st, exams, stamp)));
+        }
+        return out;
+    }
+
+    static byte[] ics(Student student, List<ExamSession> exams, String stamp) {
+        StringBuilder sb = new StringBuilder(256 + exams.size() * 256);
+        sb.append("BEGIN:VCALENDAR\r\n")
+                .append("VERSION:2.0\r\n")
+                .append("PRODID:-//SE302 Exam Scheduler//Personal Timetable//EN\r\n")
+                .append("CALSCALE:GREGORIAN\r\n")
+                .append("X-WR-CALNAME:").append(escape("Exams " + student.getId())).append("\r\n");
+        for (ExamSession s : exams) {
+            ExamSlot slot = s.getSlot();
+            sb.append("BEGIN:VEVENT\r\n")
+                    .append("UID:").append(escape(s.getCourse().getCode() + "-" + student.getId())).append("@se302-exam-scheduler\r\n")
+                    .append("DTSTAMP:").append(stamp).append("\r\n")
+                    .append("DTSTART:").append(slot.getDate().atTime(slot.getStartTime()).format(ICS_TIME)).append("\r\n")
+                    .append("DTEND:").append(slot.getDate().atTime(slot.getEndTime()).format(ICS_TIME)).append("\r\n")
+                    .append("SUMMARY:").append(escape("Exam " + s.getCourse().getCode())).append("\r\n")
+                    .append("LOCATION:").append(escape(s.getRoomNames())).append("\r\n")
+                    .append("END:VEVENT\r\n");
+        }
+        sb.append("END:VCALENDAR\r\n");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] pdf(Student student, List<ExamSession> exams) throws IOException {
+        PDRectangle pageSize = PDRectangle.A4;
+        float margin = 48f;
+        float leading = 16f;
+        try (PDDocument doc = new PDDocument(); ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096)) {
+            PDPage page = new PDPage(pageSize);
+            doc.addPage(page);
+            PDPageContentStream cs = new PDPageContentStream(doc, page);
+            cs.beginText();
+            cs.setFont(PDType1Font.HELVETICA_BOLD, 14);
+            cs.newLineAtOffset(margin, pageSize.getHeight() - margin);
+            cs.showText("Exam Timetable - " + student.getId());
+            cs.setFont(PDType1Font.COURIER, 10);
+            cs.newLineAtOffset(0, -leading * 1.6f);
+            float y = pageSize.getHeight() - margin - leading * 1.6f;
+            if (exams.isEmpty()) cs.showText("(No exams)");
+            for (ExamSession s : exams) {
+                if (y <= margin) {
+                    cs.endText();
+                    cs.close();
+                    page = new PDPage(pageSize);
+                    doc.addPage(page);
+                    cs = new PDPageContentStream(doc, page);
+                    cs.beginText();
+                    cs.setFont(PDType1Font.COURIER, 10);
+                    cs.newLineAtOffset(margin, pageSize.getHeight() - margin);
+                    y = pageSize.getHeight() - margin;
+                }
+                cs.showText(String.format("%-12s %s %s-%s  %s", s.getCourse().getCode(), s.getSlot().getDate(),
+                        s.getSlot().getStartTime(), s.getSlot().getEndTime(), s.getRoomNames()));
+                cs.newLineAtOffset(0, -leading);
+                y -= leading;
+            }
+            cs.endText();
+            cs.close();
+            doc.save(bytes);
+            return bytes.toByteArray();
+        }
+    }
+
+    // The standard fonts are shared singletons that cache glyph data on first use; touch every
+    // printable ASCII glyph once so the workers only read those caches
+    private static void warmFonts() throws IOException {
+        StringBuilder ascii = new StringBuilder();
+        for (char c = ' '; c < 127; c++) ascii.append(c);
+        PDType1Font.HELVETICA_BOLD.getStringWidth(ascii.toString());
+        PDType1Font.COURIER.getStringWidth(ascii.toString());
+    }
+
+    // RFC 5545 text: backslash, semicolon, comma and newlines escaped
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace(";", "\\;").replace(",", "\\,").replace("\n", "\\n");
+    }
+
+    // The ID itself when it is a safe file name. Otherwise the cleaned ID plus "~" and the student's
+    // index: "~" never survives cleaning, so such names cannot clash with each other or with a clean
+    // ID ("A/1" and "A_1" would both clean to "A_1").
+    static String fileName(String id, int index) {
+        String safe = id.replaceAll("[^A-Za-z0-9._-]", "_");
+        return safe.equals(id) ? id : safe + "~" + index;
+    }
+
+    public static Set<Format> parseFormats(String text) {
+        Set<Format> formats = EnumSet.noneOf(Format.class);
+        for (String f : text.split("[,+]")) {
+            if (!f.isBlank()) formats.add(Format.valueOf(f.trim().toUpperCase(java.util.Locale.ROOT)));
+        }
+        if (formats.isEmpty()) throw new IllegalArgumentException("No personal timetable format given");
+        return formats;
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.se302_examscheduler;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Per-run student index keyed by slot ordinal. Room occupancy lives in RoomReservations,
+// which several PlacementStates share when independent components are scheduled in parallel.
+final class PlacementState {
+
+    private final int[] dayOf;
+    private final int[] periodOf;
+    private final RoomReservations rooms;
+    private final Map<Student, int[]> studentSlots = new HashMap<>();
+
+    PlacementState(List<ExamSlot> slots, RoomReservations rooms) {
+        this.rooms = rooms;
+        this.dayOf = new int[slots.size()];
+        this.periodOf = new int[slots.size()];
+        for (int i = 0; i < slots.size(); i++) {
+            dayOf[i] = slots.get(i).getDayIndex();
+            periodOf[i] = slots.get(i).getPeriodIndex();
+        }
+    }
+
+    RoomReservations rooms() {
+        return rooms;
+    }
+
+    // Null when every student of the course can sit an exam in this slot.
+    SchedulerMetrics.Counter studentViolation(Course course, int slot) {
+        int day = dayOf[slot];
+        int period = periodOf[slot];
+
+        for (Student s : course.getStudents()) {
+            int[] taken = studentSlots.get(s);
+            if (taken == null) continue;
+
+            int examsThatDay = 0;
+            for (int i = 1; i <= taken[0]; i++) {
+                int other = taken[i];
+                if (other == slot) return SchedulerMetrics.Counter.REJECT_CLASH;
+                if (dayOf[other] != day) continue;
+
+                examsThatDay++;
+                if (period >= 0 && periodOf[other] >= 0 && Math.abs(periodOf[other] - period) == 1) {
+                    return SchedulerMetrics.Counter.REJECT_CONSECUTIVE;
+                }
+            }
+            if (examsThatDay >= 2) return SchedulerMetrics.Counter.REJECT_DAILY_LIMIT;
+        }
+        return null;
+    }
+
+    // Reserves the rooms first; false (and nothing recorded) when another thread took them.
+    boolean place(Course course, int slot, int[] roomIdx, int[] seats) {
+        if (!rooms.tryReserve(slot, roomIdx, seats)) return false;
+        for (Student s : course.getStudents()) {
+            int[] taken = studentSlots.get(s);
+            if (taken == null) {
+                taken = new int[5];
+            } else if (taken[0] + 1 == taken.length) {
+                taken = Arrays.copyOf(taken, taken.length * 2);
+            }
+            taken[++taken[0]] = slot;
+            studentSlots.put(s, taken);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,153 @@
+package org.example.se302_examscheduler;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Room-by-slot free-seat index shared by every scheduling thread. Reads are plain lookups;
+// reservations are compare-and-set per cell, so two components can never take the same seats.
+// Without sharing a used room is marked -1.
+final class RoomReservations {
+
+    private final int[] capacity;
+    private final Integer[] byCapacityDesc;
+    private final boolean sharing;
+    private final AtomicIntegerArray freeSeats;
+    private final AtomicIntegerArray freeCapacity;
+
+    RoomReservations(int slots, List<Classroom> rooms, boolean sharing) {
+        this.sharing = sharing;
+        this.capacity = new int[rooms.size()];
+        int total = 0;
+        for (int r = 0; r < rooms.size(); r++) {
+            capacity[r] = rooms.get(r).getCapacity();
+            total += capacity[r];
+        }
+        this.byCapacityDesc = new Integer[rooms.size()];
+        for (int r = 0; r < rooms.size(); r++) byCapacityDesc[r] = r;
+        Arrays.sort(byCapacityDesc, (a, b) -> Integer.compare(capacity[b], capacity[a]));
+
+        int[] seats = new int[slots * rooms.size()];
+        for (int s = 0; s < slots; s++) {
+            System.arraycopy(capacity, 0, seats, s * capacity.length, capacity.length);
+        }
+        this.freeSeats = new AtomicIntegerArray(seats);
+        int[] perSlot = new int[slots];
+        Arrays.fill(perSlot, total);
+        this.freeCapacity = new AtomicIntegerArray(perSlot);
+    }
+
+    boolean isRoomFree(int slot, int room) {
+        return freeSeats.get(slot * capacity.length + room) == capacity[room];
+    }
+
+    // Seats still available to a new exam: whatever is left when sharing, otherwise all or nothing.
+    int available(int slot, int room) {
+        int free = freeSeats.get(slot * capacity.length + room);
+        if (sharing) return free;
+        return free == capacity[room] ? free : 0;
+    }
+
+    // Best fit: the room with the least free space that still seats the whole course, or -1.
+    int bestFitRoom(int slot, int need) {
+        if (freeCapacity.get(slot) < need) return -1;
+        int best = -1;
+        int bestFree = Integer.MAX_VALUE;
+        for (int r = 0; r < capacity.length; r++) {
+            int free = available(slot, r);
+            if (free >= need && free < bestFree) {
+                best = r;
+                bestFree = free;
+            }
+        }
+        return best;
+    }
+
+    // Fewest free rooms whose capacities add up to the need, with the last room swapped for the
+    // tightest one that still covers the remainder. Null if the slot cannot seat the course.
+    int[] findRoomSplit(int slot, int need) {
+        if (freeCapacity.get(slot) < need) return null;
+
+        int[] chosen = new int[capacity.length];
+        int[] free = new int[capacity.length];
+        for (int r = 0; r < capacity.length; r++) free[r] = available(slot, r);
+
+        int count = 0;
+        int seated = 0;
+        for (int r : byCapacityDesc) {
+            if (free[r] == 0) continue;
+            chosen[count++] = r;
+            seated += free[r];
+            if (seated >= need) break;
+        }
+        if (seated < need) return null;
+
+        int last = chosen[count - 1];
+        int remainder = need - (seated - free[last]);
+        int tightest = last;
+        for (int r = 0; r < capacity.length; r++) {
+            if (free[r] >= remainder && free[r] < free[tightest] && !contains(chosen, count, r)) {
+                tightest = r;
+            }
+        }
+        chosen[count - 1] = tightest;
+        return Arrays.copyOf(chosen, count);
+    }
+
+    // Fills the chosen rooms in order, each up to its available seats.
+    int[] seatsFor(int slot, int[] rooms, int need) {
+        int[] seats = new int[rooms.length];
+        int remaining = need;
+        for (int i = 0; i < rooms.length; i++) {
+            seats[i] = Math.min(available(slot, rooms[i]), remaining);
+            remaining -= seats[i];
+        }
+        return seats;
+    }
+
+    // Takes every room or none; false when another thread got there first.
+    boolean tryReserve(int slot, int[] rooms, int[] seats) {
+        for (int i = 0; i < rooms.length; i++) {
+            if (!reserve(slot, rooms[i], seats[i])) {
+                for (int j = 0; j < i; j++) release(slot, rooms[j], seats[j]);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean reserve(int slot, int room, int seats) {
+        int cell = slot * capacity.length + room;
+        while (true) {
+            int free = freeSeats.get(cell);
+            int next;
+            if (sharing) {
+                if (free < seats) return false;
+                next = free - seats;
+            } else {
+                if (free != capacity[room]) return false;
+                next = -1;
+            }
+            if (freeSeats.compareAndSet(cell, free, next)) {
+                freeCapacity.addAndGet(slot, -(sharing ? seats : capacity[room]));
+                return true;
+            }
+        }
+    }
+
+    private void release(int slot, int room, int seats) {
+        int cell = slot * capacity.length + room;
+        if (sharing) {
+            freeSeats.addAndGet(cell, seats);
+            freeCapacity.addAndGet(slot, seats);
+        } else {
+            freeSeats.set(cell, capacity[room]);
+            freeCapacity.addAndGet(slot, capacity[room]);
+        }
+    }
+
+    private static boolean contains(int[] a, int n, int v) {
+        for (int i = 0; i < n; i++) if (a[i] == v) return true;
+        return false;
+    }
+}
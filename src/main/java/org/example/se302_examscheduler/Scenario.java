@@ -0,0 +1,134 @@
+package org.example.se302_examscheduler;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+
+// A named alternative over the shared base data: its own exam window and generation options,
+// plus rooms left out. Students, courses and enrolments are never copied per scenario.
+public class Scenario {
+    private final String name;
+    private LocalDate start;
+    private LocalDate end;
+    private final Set<String> excludedRooms = new TreeSet<>();
+    private SchedulerConfig.Engine engine = SchedulerConfig.Engine.GREEDY;
+    private boolean allowRoomSplitting;
+    private boolean allowRoomSharing;
+
+    public Scenario(String name, LocalDate start, LocalDate end) {
+        if (name == null || name.isBlank()) throw new IllegalArgumentException("Scenario needs a name");
+        this.name = name.trim();
+        this.start = start;
+        this.end = end;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LocalDate getStart() {
+        return start;
+    }
+
+    public void setStart(LocalDate start) {
+        this.start = start;
+    }
+
+    public LocalDate getEnd() {
+        return end;
+    }
+
+    public void setEnd(LocalDate end) {
+        this.end = end;
+    }
+
+    public Set<String> getExcludedRooms() {
+        return Collections.unmodifiableSet(excludedRooms);
+    }
+
+    public void excludeRoom(String room) {
+        excludedRooms.add(room);
+    }
+
+    public SchedulerConfig.Engine getEngine() {
+        return engine;
+    }
+
+    public void setEngine(SchedulerConfig.Engine engine) {
+        this.engine = engine;
+    }
+
+    public boolean isAllowRoomSplitting() {
+        return allowRoomSplitting;
+    }
+
+    public void setAllowRoomSplitting(boolean allowRoomSplitting) {
+        this.allowRoomSplitting = allowRoomSplitting;
+    }
+
+    public boolean isAllowRoomSharing() {
+        return allowRoomSharing;
+    }
+
+    public void setAllowRoomSharing(boolean allowRoomSharing) {
+        this.allowRoomSharing = allowRoomSharing;
+    }
+
+    public SchedulerConfig toConfig(SlotCalendar calendar) {
+        SchedulerConfig config = new SchedulerConfig();
+        config.setCalendar(calendar);
+        config.setEngine(engine);
+        config.setAllowRoomSplitting(allowRoomSplitting);
+        config.setAllowRoomSharing(allowRoomSharing);
+        if (engine == SchedulerConfig.Engine.EXACT) config.setTimeBudgetMs(60_000);
+        return config;
+    }
+
+    // "name:2026-01-05:2026-01-23[:exclude=Gym+Hall;share]"
+    public static Scenario parse(String spec) {
+        String[] parts = spec.trim().split(":", 4);
+        if (parts.length < 3) throw new IllegalArgumentException("Scenario needs name:start:end, got " + spec.trim());
+        Scenario s = new Scenario(parts[0], LocalDate.parse(parts[1].trim()), LocalDate.parse(parts[2].trim()));
+        if (s.end.isBefore(s.start)) throw new IllegalArgumentException("Scenario " + s.name + " ends before it starts");
+        if (parts.length == 4) s.parseOptions(parts[3]);
+        return s;
+    }
+
+    // "exclude=Gym+Hall;engine=exact;split;share"; only what differs from the defaults is written
+    public String formatOptions() {
+        StringJoiner j = new StringJoiner(";");
+        if (!excludedRooms.isEmpty()) j.add("exclude=" + String.join("+", excludedRooms));
+        if (engine != SchedulerConfig.Engine.GREEDY) j.add("engine=" + engine.name().toLowerCase(Locale.ROOT));
+        if (allowRoomSplitting) j.add("split");
+        if (allowRoomSharing) j.add("share");
+        return j.toString();
+    }
+
+    public void parseOptions(String text) {
+        if (text == null || text.isBlank()) return;
+        for (String part : text.split(";")) {
+            String[] kv = part.split("=", 2);
+            String key = kv[0].trim().toLowerCase(Locale.ROOT);
+            switch (key) {
+                case "exclude" -> {
+                    if (kv.length == 2) Arrays.stream(kv[1].split("\\+")).map(String::trim)
+                            .filter(s -> !s.isEmpty()).forEach(excludedRooms::add);
+                }
+                case "engine" -> engine = SchedulerConfig.Engine.valueOf(kv[1].trim().toUpperCase(Locale.ROOT));
+                case "split" -> allowRoomSplitting = true;
+                case "share" -> allowRoomSharing = true;
+                case "" -> { }
+                default -> throw new IllegalArgumentException("Unknown scenario option: " + part.trim());
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + start + " - " + end + (formatOptions().isEmpty() ? "" : ", " + formatOptions()) + ")";
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.se302_examscheduler;
+
+import java.util.List;
+import java.util.Locale;
+
+// Generates several scenarios over one base snapshot at the same time and lines the results up.
+// Each run gets its own Schedule over the shared base objects, so memory grows only by the
+// per-scenario reference lists and sessions.
+public final class ScenarioRunner {
+
+    private ScenarioRunner() {}
+
+    public static class Outcome {
+        final Scenario scenario;
+        final ScheduleSnapshot schedule;
+        final SchedulingResult result;
+        final int rooms;
+        final int examDays;
+        final int issues;
+        final double millis;
+
+        Outcome(Scenario scenario, ScheduleSnapshot schedule, SchedulingResult result, int rooms,
+                int examDays, int issues, double millis) {
+            this.scenario = scenario;
+            this.schedule = schedule;
+            this.result = result;
+            this.rooms = rooms;
+            this.examDays = examDays;
+            this.issues = issues;
+            this.millis = millis;
+        }
+
+        public Scenario getScenario() {
+            return scenario;
+        }
+
+        public ScheduleSnapshot getSchedule() {
+            return schedule;
+        }
+
+        public SchedulingResult getResult() {
+            return result;
+        }
+
+        public int getRooms() {
+            return rooms;
+        }
+
+        public int getExamDays() {
+            return examDays;
+        }
+
+        public int getIssues() {
+            return issues;
+        }
+
+        public double getMillis() {
+            return millis;
+        }
+    }
+
+    public static List<Outcome> runAll(ScheduleSnapshot base, List<Scenario> scenarios, SlotCalendar calendar) {
+        return (scenarios.size() > 1 ? scenarios.parallelStream() : scenarios.stream())
+                .map(s -> run(base, s, calendar))
+                .toList();
+    }
+
+    public static Outcome run(ScheduleSnapshot base, Scenario scenario, SlotCalendar calendar) {
+        long t0 = System.nanoTime();
+        Schedule work = Schedule.scenarioOf(base, r -> !scenario.getExcludedRooms().contains(r.getName()));
+        SchedulerConfig config = scenario.toConfig(calendar);
+        SchedulingResult result = SchedulingEngine.forConfig(config)
+                .generate(work, scenario.getStart(), scenario.getEnd(), config);
+        ScheduleSnapshot snap = work.snapshot();
+        int issues = ScheduleValidator.validate(snap).getIssues();
+        int days = (int) snap.getExamSessions().stream().map(s -> s.getSlot().getDate()).distinct().count();
+        return new Outcome(scenario, snap, result, snap.getClassrooms().size(), days, issues,
+                (System.nanoTime() - t0) / 1_000_000.0);
+    }
+
+    // Plain-text side-by-side comparison, one row per scenario
+    public static String compare(List<Outcome> outcomes) {
+        StringBuilder sb = new StringBuilder(String.format(Locale.ROOT, "%-18s %-23s %5s %8s %11s %9s %9s %6s %8s%n",
+                "Scenario", "Window", "Rooms", "Sessions", "Unscheduled", "Exam days", "Score", "Issues", "ms"));
+        for (Outcome o : outcomes) {
+            sb.append(String.format(Locale.ROOT, "%-18s %-23s %5d %8d %11d %9d %9d %6d %8.0f%n",
+                    o.scenario.getName(), o.scenario.getStart() + ".." + o.scenario.getEnd(), o.rooms,
+                    o.result.getSessions().size(), o.result.getUnscheduledCourses().size(), o.examDays,
+                    o.result.getScore(), o.issues, o.millis));
+        }
+        return sb.toString();
+    }
+}
@@ -3,16 +3,50 @@ package org.example.se302_examscheduler;
 import org.example.se302_examscheduler.*;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 
 public class Schedule {
-    private final List<Course> courses = new ArrayList<>();
-    private final List<Student> students = new ArrayList<>();
-    private final List<Classroom> classrooms = new ArrayList<>();
+    private final IndexedList<String, Course> courses = new IndexedList<>(Course::getCode);
+    private final IndexedList<String, Student> students = new IndexedList<>(Student::getId);
+    private final IndexedList<String, Classroom> classrooms = new IndexedList<>(Classroom::getName);
     private final List<ExamSlot> examSlots = new ArrayList<>();
     private final List<ExamSession> examSessions = new ArrayList<>();
+    private boolean roomSharing;
+    private long dataVersion;
+    private final AtomicReference<ScheduleSnapshot> current = new AtomicReference<>(ScheduleSnapshot.EMPTY);
+    // False for scenario copies: they share Course objects with the base, so must not link sessions into them
+    private final boolean linksCourses;
+    // For scenario copies: the snapshot they were made from, whose course components they reuse
+    private final ScheduleSnapshot base;
+
+    public Schedule() {
+        this(true, null);
+    }
+
+    private Schedule(boolean linksCourses, ScheduleSnapshot base) {
+        this.linksCourses = linksCourses;
+        this.base = base;
+    }
+
+    // A working schedule over the base snapshot's own Course, Student and Classroom objects (only the
+    // reference lists are new), keeping the rooms the filter accepts. Safe to generate concurrently
+    // with other scenarios over the same base.
+    public static Schedule scenarioOf(ScheduleSnapshot base, Predicate<Classroom> rooms) {
+        Schedule s = new Schedule(false, base);
+        s.courses.addAll(base.getCourses());
+        s.students.addAll(base.getStudents());
+        for (Classroom room : base.getClassrooms()) {
+            if (rooms.test(room)) s.classrooms.add(room);
+        }
+        s.install();
+        return s;
+    }
 
     public List<Course> getCourses() {
         return courses;
@@ -34,19 +68,196 @@ public class Schedule {
         return examSessions;
     }
 
-    public Map<String, Course> getCoursesMap() {
-        Map<String, Course> map = new HashMap<>();
-        for (Course c : courses) {
-            map.put(c.getCode(), c);
+    // True when the sessions were generated with several exams allowed per room and slot
+    public boolean isRoomSharing() {
+        return roomSharing;
+    }
+
+    public void setRoomSharing(boolean roomSharing) {
+        this.roomSharing = roomSharing;
+    }
+
+    // Latest published version; safe to read from any thread
+    public ScheduleSnapshot snapshot() {
+        return current.get();
+    }
+
+    // Publishes the working lists as a new version. Call after editing them directly.
+    public synchronized ScheduleSnapshot publish() {
+        dataVersion++;
+        return install();
+    }
+
+    // Installs a finished timetable in one step, so nobody observes it half built.
+    public synchronized ScheduleSnapshot commit(List<ExamSlot> slots, List<ExamSession> sessions,
+                                                boolean roomSharing) {
+        examSlots.clear();
+        examSlots.addAll(slots);
+        examSessions.clear();
+        examSessions.addAll(sessions);
+        this.roomSharing = roomSharing;
+        if (linksCourses) {
+            for (Course c : courses) c.setExamSession(null);
+            for (ExamSession s : sessions) s.getCourse().setExamSession(s);
         }
-        return map;
+        return install();
     }
 
-    public Map<String, Student> getStudentsMap() {
-        Map<String, Student> map = new HashMap<>();
-        for (Student s : students) {
-            map.put(s.getId(), s);
+    // Replaces one course's roster with the edited one. The timetable is kept, so a warm start can
+    // reuse it; validation shows whatever the change broke.
+    public synchronized ScheduleSnapshot updateEnrollments(Course course, Collection<Student> added,
+                                                           Collection<Student> removed) {
+        requireBase();
+        Set<Student> gone = new HashSet<>(removed);
+        course.updateStudents(added, gone);
+        for (Student s : gone) s.removeCourse(course);
+        for (Student s : added) s.addCourse(course);
+        reconcileSessions();
+        return publish();
+    }
+
+    // Patches the loaded model with edits already written to the database. Like updateEnrollments,
+    // the timetable is kept, less the sessions of deleted courses and rooms.
+    public synchronized ScheduleSnapshot apply(List<ModelChange> changes) {
+        requireBase();
+        for (ModelChange change : changes) applyChange(change);
+        reconcileSessions();
+        return publish();
+    }
+
+    private void applyChange(ModelChange change) {
+        String key = change.getKey();
+        switch (change.getKind()) {
+            case UPSERT_CLASSROOM -> {
+                Classroom room = new Classroom(key, change.getCapacity());
+                Classroom existing = classrooms.byKey(key);
+                if (existing == null) {
+                    classrooms.add(room);
+                } else {
+                    classrooms.set(classrooms.indexOf(existing), room);
+                }
+            }
+            case DELETE_CLASSROOM -> {
+                Classroom existing = classrooms.byKey(key);
+                if (existing != null) classrooms.remove(existing);
+            }
+            case UPSERT_STUDENT -> {
+                if (students.byKey(key) == null) students.add(new Student(key));
+            }
+            case DELETE_STUDENT -> {
+                Student st = students.byKey(key);
+                if (st == null) return;
+                for (Course c : st.getCourses()) c.removeStudent(st);
+                students.remove(st);
+            }
+            case UPSERT_COURSE -> {
+                if (courses.byKey(key) == null) courses.add(new Course(key));
+            }
+            case DELETE_COURSE -> {
+                Course c = courses.byKey(key);
+                if (c == null) return;
+                for (Student st : c.getStudents()) st.removeCourse(c);
+                courses.remove(c);
+            }
+            case ENROLL, UNENROLL -> {
+                Student st = students.byKey(key);
+                Course c = courses.byKey(change.getCourseCode());
+                if (st == null || c == null) return;
+                if (change.getKind() == ModelChange.Kind.ENROLL) {
+                    c.addStudent(st);
+                    st.addCourse(c);
+                } else {
+                    c.removeStudent(st);
+                    st.removeCourse(c);
+                }
+            }
+        }
+    }
+
+    private void requireBase() {
+        if (!linksCourses) throw new IllegalStateException("Scenario schedules share the base data; edit the base schedule");
+    }
+
+    // Drops sessions whose course or a room is gone and rebinds the rest to the current room
+    // objects and rosters, as the database keeps the same rows
+    private void reconcileSessions() {
+        List<ExamSession> kept = new ArrayList<>(examSessions.size());
+        for (ExamSession s : examSessions) {
+            ExamSession now = courses.byKey(s.getCourse().getCode()) == s.getCourse() ? rebind(s) : null;
+            if (linksCourses) s.getCourse().setExamSession(now);
+            if (now != null) kept.add(now);
         }
-        return map;
+        examSessions.clear();
+        examSessions.addAll(kept);
+    }
+
+    private ExamSession rebind(ExamSession s) {
+        List<Classroom> rooms = new ArrayList<>(s.getClassrooms().size());
+        boolean sameRooms = true;
+        for (Classroom r : s.getClassrooms()) {
+            Classroom now = classrooms.byKey(r.getName());
+            if (now == null) return null;
+            sameRooms &= now == r;
+            rooms.add(now);
+        }
+        if (!s.isSplit()) {
+            boolean sameSeats = s.getSeats(0) == s.getCourse().getStudents().size();
+            return sameRooms && sameSeats ? s : new ExamSession(s.getCourse(), rooms.get(0), s.getSlot());
+        }
+        if (sameRooms) return s;
+        int[] seats = new int[rooms.size()];
+        for (int i = 0; i < seats.length; i++) seats[i] = s.getSeats(i);
+        return new ExamSession(s.getCourse(), rooms, seats, s.getSlot());
+    }
+
+    // Swaps one course's session for a new placement, e.g. after a manual move; data version unchanged
+    public synchronized ScheduleSnapshot replaceSession(ExamSession old, ExamSession updated) {
+        int i = examSessions.indexOf(old);
+        if (i < 0) throw new IllegalArgumentException("Session is not part of this schedule: " + old);
+        examSessions.set(i, updated);
+        if (linksCourses) {
+            old.getCourse().setExamSession(null);
+            updated.getCourse().setExamSession(updated);
+        }
+        return install();
+    }
+
+    private ScheduleSnapshot install() {
+        ScheduleSnapshot previous = current.get();
+        ScheduleSnapshot next = new ScheduleSnapshot(previous.getVersion() + 1, dataVersion,
+                courses, students, classrooms, examSlots, examSessions, roomSharing);
+        next.inheritCaches(previous);
+        current.set(next);
+        return next;
+    }
+
+    // Courses split into groups that share no students; cached per data version, shared with the base
+    List<List<Course>> courseComponents() {
+        return (base != null ? base : snapshot()).courseComponents();
+    }
+
+    public Course getCourse(String code) {
+        return courses.byKey(code);
+    }
+
+    public Student getStudent(String id) {
+        return students.byKey(id);
+    }
+
+    public Classroom getClassroom(String name) {
+        return classrooms.byKey(name);
+    }
+
+    // Live read-only views of the maintained indexes
+    public Map<String, Course> getCoursesMap() {
+        return courses.asMap();
+    }
+
+    public Map<String, Student> getStudentsMap() {
+        return students.asMap();
+    }
+
+    public Map<String, Classroom> getClassroomsMap() {
+        return classrooms.asMap();
     }
 }
@@ -0,0 +1,244 @@
+package org.example.se302_examscheduler;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.*;
+
+public final class ScheduleExporter {
+
+    private ScheduleExporter() {}
+
+    public static void exportToCsv(Schedule schedule, File out, String view) throws IOException {
+        exportToCsv(schedule.snapshot(), out, view);
+    }
+
+    public static void exportToCsv(ScheduleSnapshot schedule, File out, String view) throws IOException {
+        try (PrintWriter pw = new PrintWriter(new FileWriter(out))) {
+            switch (view) {
+                case "By Classroom" -> exportByClassroom(schedule, pw);
+                case "By Student" -> exportByStudent(schedule, pw);
+                case "By Day" -> exportByDay(schedule, pw);
+                default -> exportCourseBased(schedule, pw);
+            }
+        }
+    }
+
+    private static void exportCourseBased(ScheduleSnapshot schedule, PrintWriter pw) {
+        pw.println("Course,Classroom,Date,Start,End");
+        schedule.views().byTime()
+                .forEach(s -> pw.printf("%s,%s,%s,%s,%s%n",
+                        s.getCourse().getCode(),
+                        s.getRoomNames(),
+                        s.getSlot().getDate(),
+                        s.getSlot().getStartTime(),
+                        s.getSlot().getEndTime()));
+    }
+
+    private static void exportByClassroom(ScheduleSnapshot schedule, PrintWriter pw) {
+        pw.println("Classroom,Course,Date,Start,End,Seats,Shared");
+        schedule.views().roomUses()
+                .forEach(u -> pw.printf("%s,%s,%s,%s,%s,%d,%s%n",
+                        u.getRoom().getName(),
+                        u.getSession().getCourse().getCode(),
+                        u.getSession().getSlot().getDate(),
+                        u.getSession().getSlot().getStartTime(),
+                        u.getSession().getSlot().getEndTime(),
+                        u.getSeats(),
+                        u.isShared() ? "yes" : "no"));
+    }
+
+    private static void exportByDay(ScheduleSnapshot schedule, PrintWriter pw) {
+        pw.println("Date,Start,End,Course,Classroom");
+        schedule.views().byTime()
+                .forEach(s -> pw.printf("%s,%s,%s,%s,%s%n",
+                        s.getSlot().getDate(),
+                        s.getSlot().getStartTime(),
+                        s.getSlot().getEndTime(),
+                        s.getCourse().getCode(),
+                        s.getRoomNames()));
+    }
+
+    private static void exportByStudent(ScheduleSnapshot schedule, PrintWriter pw) {
+        pw.println("Student,Course,Date,Start,End,Classroom");
+        ScheduleViews views = schedule.views();
+        Map<String, List<ExamSession>> map = new HashMap<>();
+        for (Student st : schedule.getStudents()) {
+            List<ExamSession> sessions = schedule.sessionsOf(st);
+            sessions.sort(views.timeOrder());
+            map.put(st.getId(), sessions);
+        }
+
+        map.keySet().stream().sorted().forEach(sid -> {
+            for (ExamSession s : map.get(sid)) {
+                pw.printf("%s,%s,%s,%s,%s,%s%n",
+                        sid,
+                        s.getCourse().getCode(),
+                        s.getSlot().getDate(),
+                        s.getSlot().getStartTime(),
+                        s.getSlot().getEndTime(),
+                        s.getRoomNames());
+            }
+        });
+    }
+
+
+    public static void exportToPdf(Schedule schedule, File out, String view) throws Exception {
+        exportToPdf(schedule.snapshot(), out, view);
+    }
+
+    public static void exportToPdf(ScheduleSnapshot schedule, File out, String view) throws Exception {
+        List<String> lines = buildExportLines(schedule, view);
+
+        try (PDDocument doc = new PDDocument()) {
+            PDRectangle pageSize = PDRectangle.A4;
+            float margin = 48f;
+            float yStart = pageSize.getHeight() - margin;
+            float leading = 14f;
+
+            PDPage page = new PDPage(pageSize);
+            doc.addPage(page);
+
+            PDPageContentStream cs = new PDPageContentStream(doc, page);
+
+            cs.beginText();
+            cs.setFont(PDType1Font.HELVETICA_BOLD, 14);
+            cs.newLineAtOffset(margin, yStart);
+            cs.showText("Exam Schedule Export (" + view + ")");
+            cs.newLineAtOffset(0, -leading * 1.6f);
+
+            cs.setFont(PDType1Font.COURIER, 10);
+
+            float y = yStart - (leading * 2.6f);
+
+            for (String line : lines) {
+                if (y <= margin) {
+                    cs.endText();
+                    cs.close();
+
+                    page = new PDPage(pageSize);
+                    doc.addPage(page);
+
+                    cs = new PDPageContentStream(doc, page);
+                    cs.beginText();
+                    cs.setFont(PDType1Font.COURIER, 10);
+                    cs.newLineAtOffset(margin, pageSize.getHeight() - margin);
+                    y = pageSize.getHeight() - margin;
+                }
+
+                for (String wrapped : wrapLine(line, 95)) {
+                    cs.showText(wrapped);
+                    cs.newLineAtOffset(0, -leading);
+                    y -= leading;
+
+                    if (y <= margin) break;
+                }
+            }
+
+            cs.endText();
+            cs.close();
+
+            doc.save(out);
+        }
+    }
+
+    public static List<String> buildExportLines(Schedule schedule, String view) {
+        return buildExportLines(schedule.snapshot(), view);
+    }
+
+    public static List<String> buildExportLines(ScheduleSnapshot schedule, String view) {
+        ScheduleViews views = schedule.views();
+        List<ExamSession> sessions = views.byTime();
+
+        List<String> lines = new ArrayList<>();
+        lines.add("--------------------------------------------------------------------------");
+
+        switch (view) {
+            case "By Classroom" -> {
+                views.byRoom().forEach((room, uses) -> {
+                    lines.add("== " + room + " ==");
+                    for (ScheduleViews.RoomUse u : uses) {
+                        lines.add(String.format("  %s | %s %s-%s%s",
+                                u.getSession().getCourse().getCode(),
+                                u.getSession().getSlot().getDate(),
+                                u.getSession().getSlot().getStartTime(),
+                                u.getSession().getSlot().getEndTime(),
+                                u.getSession().isSplit() || u.isShared()
+                                        ? " | " + u.getSeats() + " seats" + (u.isShared() ? " (shared)" : " (split)")
+                                        : ""));
+                    }
+                    lines.add("");
+                });
+            }
+            case "By Student" -> {
+                for (Student st : schedule.getStudents()) {
+                    List<ExamSession> list = schedule.sessionsOf(st);
+                    list.sort(views.timeOrder());
+
+                    lines.add("== Student: " + st.getId() + " ==");
+                    if (list.isEmpty()) {
+                        lines.add("  (No exams)");
+                    } else {
+                        for (ExamSession s : list) {
+                            lines.add(String.format("  %s | %s %s-%s | %s",
+                                    s.getCourse().getCode(),
+                                    s.getSlot().getDate(),
+                                    s.getSlot().getStartTime(),
+                                    s.getSlot().getEndTime(),
+                                    s.getRoomNames()));
+                        }
+                    }
+                    lines.add("");
+                }
+            }
+            case "By Day" -> {
+                views.byDay().forEach((day, list) -> {
+                    lines.add("== " + day + " ==");
+                    for (ExamSession s : list) {
+                        lines.add(String.format("  %s-%s | %s | %s",
+                                s.getSlot().getStartTime(),
+                                s.getSlot().getEndTime(),
+                                s.getCourse().getCode(),
+                                s.getRoomNames()));
+                    }
+                    lines.add("");
+                });
+            }
+            default -> {
+                lines.add("Course | Classroom | Date | Start-End");
+                for (ExamSession s : sessions) {
+                    lines.add(String.format("%s | %s | %s | %s-%s",
+                            s.getCourse().getCode(),
+                            s.getRoomNames(),
+                            s.getSlot().getDate(),
+                            s.getSlot().getStartTime(),
+                            s.getSlot().getEndTime()));
+                }
+            }
+        }
+
+        lines.add("--------------------------------------------------------------------------");
+        lines.add("Total sessions: " + sessions.size());
+        return lines;
+    }
+
+    private static List<String> wrapLine(String s, int maxLen) {
+        List<String> out = new ArrayList<>();
+        if (s == null) return out;
+        String text = s;
+
+        while (text.length() > maxLen) {
+            out.add(text.substring(0, maxLen));
+            text = text.substring(maxLen);
+        }
+        out.add(text);
+        return out;
+    }
+}
@@ -0,0 +1,213 @@
+package org.example.se302_examscheduler;
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.input.ClipboardContent;
+import javafx.scene.input.Dragboard;
+import javafx.scene.input.TransferMode;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+
+// Rooms x slots timetable. A session can be dragged to another slot or room; while it is dragged
+// every cell is tinted by whether the move keeps the hard constraints, and only green cells take it;
+// hovering a cell also shows what the move would do to the soft-constraint score. A drop updates the
+// schedule, the score, the validation report and that one session's database rows; the caller
+// publishes the edited timetable once the grid is closed.
+final class ScheduleGridView {
+
+    private static final String CELL = "-fx-border-color: #d0d0d0; -fx-border-width: 0 1 1 0; -fx-padding: 4;";
+    private static final String FREE = CELL + " -fx-background-color: #d4edda;";
+    private static final String BLOCKED = CELL + " -fx-background-color: #f8d7da;";
+    private static final String CURRENT = CELL + " -fx-background-color: #fff3cd;";
+    private static final String PLAIN = CELL + " -fx-background-color: white;";
+    private static final String SESSION = "-fx-background-color: #2196F3; -fx-text-fill: white;"
+            + " -fx-padding: 2 6 2 6; -fx-background-radius: 3; -fx-cursor: hand;";
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("EEE dd.MM", Locale.ENGLISH);
+
+    private final Schedule schedule;
+    private final Runnable onMoved;
+    private final MoveChecker checker;
+    private final ScheduleScorer scorer;
+    private final VBox[][] cells;       // [slot][room]
+    private final Label status = new Label();
+    private MoveChecker.Verdict[][] verdicts;
+    private long[] scoreDeltas;         // per slot, for the dragged session
+    private ExamSession dragged;
+    private boolean moved;
+
+    private ScheduleGridView(Schedule schedule, Runnable onMoved) {
+        this.schedule = schedule;
+        this.onMoved = onMoved;
+        this.checker = new MoveChecker(schedule.snapshot());
+        this.scorer = new ScheduleScorer(schedule.snapshot(), new ScoreWeights());
+        this.cells = new VBox[checker.slots().size()][checker.rooms().size()];
+    }
+
+    // Returns whether any session was moved
+    static boolean show(Stage owner, Schedule schedule, Runnable onMoved) {
+        ScheduleGridView view = new ScheduleGridView(schedule, onMoved);
+
+        Stage stage = new Stage();
+        stage.setTitle("Timetable Grid");
+        stage.initOwner(owner);
+        stage.initModality(Modality.WINDOW_MODAL);
+
+        ScrollPane scroll = new ScrollPane(view.buildGrid());
+        VBox.setVgrow(scroll, Priority.ALWAYS);
+        view.showIssues("Drag an exam to another slot or room.");
+
+        VBox root = new VBox(8, scroll, view.status);
+        root.setStyle("-fx-padding: 10;");
+        stage.setScene(new Scene(root, 1000, 620));
+        stage.showAndWait();
+        return view.moved;
+    }
+
+    private GridPane buildGrid() {
+        GridPane grid = new GridPane();
+        List<ExamSlot> slots = checker.slots();
+        List<Classroom> rooms = checker.rooms();
+
+        for (int s = 0; s < slots.size(); s++) {
+            ExamSlot slot = slots.get(s);
+            Label header = new Label(slot.getDate().format(DAY) + "\n" + slot.getStartTime() + "-" + slot.getEndTime());
+            header.setStyle(CELL + " -fx-font-weight: bold;");
+            header.setMaxWidth(Double.MAX_VALUE);
+            grid.add(header, s + 1, 0);
+        }
+        for (int r = 0; r < rooms.size(); r++) {
+            Label header = new Label(rooms.get(r).getName() + " (" + rooms.get(r).getCapacity() + ")");
+            header.setStyle(CELL + " -fx-font-weight: bold;");
+            header.setMaxHeight(Double.MAX_VALUE);
+            grid.add(header, 0, r + 1);
+
+            for (int s = 0; s < slots.size(); s++) {
+                VBox cell = new VBox(2);
+                cell.setMinSize(90, 36);
+                cell.setStyle(PLAIN);
+                cells[s][r] = cell;
+                wireDropTarget(cell, s, r);
+                grid.add(cell, s + 1, r + 1);
+            }
+        }
+        fillCells();
+        return grid;
+    }
+
+    private void fillCells() {
+        for (VBox[] column : cells) {
+            for (VBox cell : column) cell.getChildren().clear();
+        }
+        ScheduleSnapshot snap = schedule.snapshot();
+        for (ExamSession session : snap.getExamSessions()) {
+            int s = checker.slots().indexOf(session.getSlot());
+            if (s < 0) continue;
+            for (Classroom room : session.getClassrooms()) {
+                int r = checker.rooms().indexOf(room);
+                if (r < 0) continue;
+                cells[s][r].getChildren().add(sessionLabel(session, room));
+            }
+        }
+    }
+
+    private Label sessionLabel(ExamSession session, Classroom room) {
+        String text = session.getCourse().getCode() + " (" + session.getSeatsIn(room) + ")";
+        Label label = new Label(session.isSplit() ? text + " *" : text);
+        label.setStyle(SESSION);
+        label.setOnDragDetected(e -> {
+            Dragboard db = label.startDragAndDrop(TransferMode.MOVE);
+            ClipboardContent content = new ClipboardContent();
+            content.putString(session.getCourse().getCode());
+            db.setContent(content);
+            startDrag(session);
+            e.consume();
+        });
+        label.setOnDragDone(e -> endDrag());
+        return label;
+    }
+
+    private void wireDropTarget(VBox cell, int s, int r) {
+        cell.setOnDragOver(e -> {
+            if (dragged == null) return;
+            MoveChecker.Verdict v = verdicts[s][r];
+            if (v == MoveChecker.Verdict.OK) e.acceptTransferModes(TransferMode.MOVE);
+            status.setText(dragged.getCourse().getCode() + " -> " + checker.rooms().get(r).getName()
+                    + " @ " + checker.slots().get(s) + ": " + v.getText()
+                    + (v == MoveChecker.Verdict.OK ? " (score " + signed(scoreDeltas[s]) + ")" : ""));
+            e.consume();
+        });
+        cell.setOnDragDropped(e -> {
+            boolean ok = dragged != null && verdicts[s][r] == MoveChecker.Verdict.OK;
+            if (ok) {
+                ExamSession session = dragged;
+                // Rebuild the cells after the gesture has finished with its source label
+                Platform.runLater(() -> move(session, s, r));
+            }
+            e.setDropCompleted(ok);
+            e.consume();
+        });
+    }
+
+    private void startDrag(ExamSession session) {
+        long t0 = System.nanoTime();
+        dragged = session;
+        verdicts = new MoveChecker.Verdict[cells.length][];
+        scoreDeltas = new long[cells.length];
+        for (int s = 0; s < cells.length; s++) {
+            scoreDeltas[s] = scorer.deltaMove(session.getCourse(), checker.slots().get(s));
+            verdicts[s] = new MoveChecker.Verdict[cells[s].length];
+            for (int r = 0; r < cells[s].length; r++) {
+                MoveChecker.Verdict v = checker.check(session, checker.slots().get(s), checker.rooms().get(r));
+                verdicts[s][r] = v;
+                cells[s][r].setStyle(v == MoveChecker.Verdict.OK ? FREE
+                        : v == MoveChecker.Verdict.UNCHANGED ? CURRENT : BLOCKED);
+            }
+        }
+        long micros = (System.nanoTime() - t0) / 1000;
+        status.setText("Checked " + cells.length * (cells.length == 0 ? 0 : cells[0].length)
+                + " cells in " + micros + " µs. Green cells accept " + session.getCourse().getCode() + ".");
+    }
+
+    private void endDrag() {
+        dragged = null;
+        for (VBox[] column : cells) {
+            for (VBox cell : column) cell.setStyle(PLAIN);
+        }
+    }
+
+    private void move(ExamSession session, int s, int r) {
+        ExamSession updated = MoveChecker.moved(session, checker.slots().get(s), checker.rooms().get(r));
+        schedule.replaceSession(session, updated);
+        checker.apply(session, updated);
+        moved = true;
+        scorer.applyMove(updated.getCourse(), updated.getSlot());
+        endDrag();
+        fillCells();
+        String saved = "";
+        try {
+            DatabaseManager.updateExamSession(updated);
+        } catch (RuntimeException ex) {
+            saved = " (not saved: " + ex.getMessage() + ")";
+        }
+        showIssues("Moved " + updated + saved + ".");
+        onMoved.run();
+    }
+
+    private void showIssues(String prefix) {
+        ScheduleValidator.ValidationResult vr = ScheduleValidator.validate(schedule.snapshot());
+        status.setText(prefix + " Validation issues: " + vr.getIssues() + " | Score: " + scorer.total());
+    }
+
+    private static String signed(long delta) {
+        return delta > 0 ? "+" + delta : String.valueOf(delta);
+    }
+}
@@ -0,0 +1,340 @@
+package org.example.se302_examscheduler;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+// Every published timetable, kept as a delta against the one before it. Course codes and room
+// names are numbered once in a dictionary that only grows, so a version is a set of parallel
+// arrays sorted by course ordinal; deltas and diffs are single sorted merges over those arrays.
+// Every KEYFRAME-th version is stored whole, which bounds how many deltas a load replays.
+public final class ScheduleHistory {
+
+    static final int KEYFRAME = 16;
+
+    private ScheduleHistory() {}
+
+    public enum Kind {
+        ADDED,
+        REMOVED,
+        MOVED,          // other date or time; the room may have changed as well
+        ROOM_CHANGED    // same slot, other rooms
+    }
+
+    // One published version as stored in the listing
+    public static class Info {
+        final int number;
+        final long publishedAt;
+        final int sessions;
+        final int changes;
+
+        Info(int number, long publishedAt, int sessions, int changes) {
+            this.number = number;
+            this.publishedAt = publishedAt;
+            this.sessions = sessions;
+            this.changes = changes;
+        }
+
+        public int getNumber() {
+            return number;
+        }
+
+        public long getPublishedAt() {
+            return publishedAt;
+        }
+
+        public int getSessions() {
+            return sessions;
+        }
+
+        // Sessions added, removed or changed against the previous version
+        public int getChanges() {
+            return changes;
+        }
+    }
+
+    // One timetable in dictionary ordinals, sorted by course ordinal
+    public static class Version {
+        final int[] course;
+        final int[] day;     // epoch day
+        final int[] start;   // minute of day
+        final int[] end;
+        final int[][] rooms;
+        String[] names = new String[0];
+
+        Version(int[] course, int[] day, int[] start, int[] end, int[][] rooms) {
+            this.course = course;
+            this.day = day;
+            this.start = start;
+            this.end = end;
+            this.rooms = rooms;
+        }
+
+        static Version empty() {
+            return new Version(new int[0], new int[0], new int[0], new int[0], new int[0][]);
+        }
+
+        static Version of(List<ExamSession> sessions, Map<String, Integer> ordinals) {
+            List<ExamSession> sorted = new ArrayList<>(sessions);
+            sorted.sort((a, b) -> Integer.compare(ordinals.get(a.getCourse().getCode()), ordinals.get(b.getCourse().getCode())));
+            int n = sorted.size();
+            Version v = new Version(new int[n], new int[n], new int[n], new int[n], new int[n][]);
+            for (int i = 0; i < n; i++) {
+                ExamSession s = sorted.get(i);
+                v.course[i] = ordinals.get(s.getCourse().getCode());
+                v.day[i] = (int) s.getSlot().getDate().toEpochDay();
+                v.start[i] = s.getSlot().getStartTime().toSecondOfDay() / 60;
+                v.end[i] = s.getSlot().getEndTime().toSecondOfDay() / 60;
+                v.rooms[i] = new int[s.getClassrooms().size()];
+                for (int r = 0; r < v.rooms[i].length; r++) v.rooms[i][r] = ordinals.get(s.getClassrooms().get(r).getName());
+            }
+            return v;
+        }
+
+        public int size() {
+            return course.length;
+        }
+
+        boolean sameSlot(int i, Version o, int j) {
+            return day[i] == o.day[j] && start[i] == o.start[j] && end[i] == o.end[j];
+        }
+
+        String slotText(int i) {
+            return LocalDate.ofEpochDay(day[i]) + " " + LocalTime.ofSecondOfDay(start[i] * 60L)
+                    + "-" + LocalTime.ofSecondOfDay(end[i] * 60L);
+        }
+
+        String roomText(int i) {
+            StringJoiner j = new StringJoiner("+");
+            for (int r : rooms[i]) j.add(names[r]);
+            return j.toString();
+        }
+    }
+
+    // Positions into the two versions; the text is only built when asked for
+    public static class Change {
+        final Kind kind;
+        final Version from;
+        final int i;
+        final Version to;
+        final int j;
+
+        Change(Kind kind, Version from, int i, Version to, int j) {
+            this.kind = kind;
+            this.from = from;
+            this.i = i;
+            this.to = to;
+            this.j = j;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public String getCourse() {
+            return kind == Kind.ADDED ? to.names[to.course[j]] : from.names[from.course[i]];
+        }
+
+        // "date start-end rooms"; null when added
+        public String getBefore() {
+            return kind == Kind.ADDED ? null : from.slotText(i) + " " + from.roomText(i);
+        }
+
+        // Null when removed
+        public String getAfter() {
+            return kind == Kind.REMOVED ? null : to.slotText(j) + " " + to.roomText(j);
+        }
+
+        @Override
+        public String toString() {
+            return switch (kind) {
+                case ADDED -> getCourse() + " added: " + getAfter();
+                case REMOVED -> getCourse() + " removed: " + getBefore();
+                default -> getCourse() + " " + (kind == Kind.MOVED ? "moved" : "room changed") + ": "
+                        + getBefore() + " -> " + getAfter();
+            };
+        }
+    }
+
+    public static List<Change> diff(int from, int to) {
+        Version a = DatabaseManager.loadScheduleVersion(from);
+        Version b = DatabaseManager.loadScheduleVersion(to);
+        if (a == null || b == null) throw new IllegalArgumentException("No schedule version " + (a == null ? from : to));
+        return diff(a, b);
+    }
+
+    public static List<Change> diff(Version from, Version to) {
+        String[] names = to.names.length >= from.names.length ? to.names : from.names;
+        from.names = names;
+        to.names = names;
+        List<Change> out = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < from.size() || j < to.size()) {
+            int a = i < from.size() ? from.course[i] : Integer.MAX_VALUE;
+            int b = j < to.size() ? to.course[j] : Integer.MAX_VALUE;
+            if (a < b) {
+                out.add(new Change(Kind.REMOVED, from, i, to, -1));
+                i++;
+            } else if (b < a) {
+                out.add(new Change(Kind.ADDED, from, -1, to, j));
+                j++;
+            } else {
+                boolean moved = !from.sameSlot(i, to, j);
+                if (moved || !Arrays.equals(from.rooms[i], to.rooms[j])) {
+                    out.add(new Change(moved ? Kind.MOVED : Kind.ROOM_CHANGED, from, i, to, j));
+                }
+                i++;
+                j++;
+            }
+        }
+        return out;
+    }
+
+    // "3 moved, 1 room changed, 2 added, 0 removed"
+    public static String summary(List<Change> changes) {
+        Map<Kind, Integer> counts = new EnumMap<>(Kind.class);
+        for (Kind k : Kind.values()) counts.put(k, 0);
+        for (Change c : changes) counts.merge(c.kind, 1, Integer::sum);
+        return counts.get(Kind.MOVED) + " moved, " + counts.get(Kind.ROOM_CHANGED) + " room changed, "
+                + counts.get(Kind.ADDED) + " added, " + counts.get(Kind.REMOVED) + " removed";
+    }
+
+    // Removed course ordinals, then added or changed sessions, both ascending and gap-coded; deflated.
+    // A keyframe is the delta from the empty version.
+    static byte[] encodeDelta(Version from, Version to) {
+        IntList removed = new IntList();
+        IntList upserts = new IntList();
+        int i = 0;
+        int j = 0;
+        while (i < from.size() || j < to.size()) {
+            int a = i < from.size() ? from.course[i] : Integer.MAX_VALUE;
+            int b = j < to.size() ? to.course[j] : Integer.MAX_VALUE;
+            if (a < b) {
+                removed.add(a);
+                i++;
+            } else if (b < a) {
+                upserts.add(j++);
+            } else {
+                if (!from.sameSlot(i, to, j) || !Arrays.equals(from.rooms[i], to.rooms[j])) upserts.add(j);
+                i++;
+                j++;
+            }
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+                ColumnarExport.writeVarInt(out, removed.size);
+                int prev = -1;
+                for (int k = 0; k < removed.size; k++) {
+                    ColumnarExport.writeVarInt(out, removed.values[k] - prev - 1);
+                    prev = removed.values[k];
+                }
+                ColumnarExport.writeVarInt(out, upserts.size);
+                prev = -1;
+                for (int k = 0; k < upserts.size; k++) {
+                    int at = upserts.values[k];
+                    ColumnarExport.writeVarInt(out, to.course[at] - prev - 1);
+                    prev = to.course[at];
+                    ColumnarExport.writeVarInt(out, to.day[at]);
+                    ColumnarExport.writeVarInt(out, to.start[at]);
+                    ColumnarExport.writeVarInt(out, to.end[at]);
+                    ColumnarExport.writeVarInt(out, to.rooms[at].length);
+                    for (int r : to.rooms[at]) ColumnarExport.writeVarInt(out, r);
+                }
+            }
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static int changeCount(byte[] delta) {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(delta)))) {
+            int removed = ColumnarExport.readVarInt(in);
+            for (int k = 0; k < removed; k++) ColumnarExport.readVarInt(in);
+            return removed + ColumnarExport.readVarInt(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Version applyDelta(Version from, byte[] delta) {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(delta)))) {
+            int[] removed = new int[ColumnarExport.readVarInt(in)];
+            for (int k = 0, prev = -1; k < removed.length; k++) {
+                prev += ColumnarExport.readVarInt(in) + 1;
+                removed[k] = prev;
+            }
+            int u = ColumnarExport.readVarInt(in);
+            Version up = new Version(new int[u], new int[u], new int[u], new int[u], new int[u][]);
+            for (int k = 0, prev = -1; k < u; k++) {
+                prev += ColumnarExport.readVarInt(in) + 1;
+                up.course[k] = prev;
+                up.day[k] = ColumnarExport.readVarInt(in);
+                up.start[k] = ColumnarExport.readVarInt(in);
+                up.end[k] = ColumnarExport.readVarInt(in);
+                up.rooms[k] = new int[ColumnarExport.readVarInt(in)];
+                for (int r = 0; r < up.rooms[k].length; r++) up.rooms[k][r] = ColumnarExport.readVarInt(in);
+            }
+
+            // Three-way merge: kept from the old version, replaced or added from the delta, removed dropped
+            int cap = from.size() + u;
+            Version out = new Version(new int[cap], new int[cap], new int[cap], new int[cap], new int[cap][]);
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            int r = 0;
+            while (i < from.size() || j < u) {
+                int a = i < from.size() ? from.course[i] : Integer.MAX_VALUE;
+                int b = j < u ? up.course[j] : Integer.MAX_VALUE;
+                if (b <= a) {
+                    copy(up, j++, out, n++);
+                    if (a == b) i++;
+                    continue;
+                }
+                while (r < removed.length && removed[r] < a) r++;
+                if (r < removed.length && removed[r] == a) {
+                    i++;
+                    continue;
+                }
+                copy(from, i++, out, n++);
+            }
+            return new Version(Arrays.copyOf(out.course, n), Arrays.copyOf(out.day, n), Arrays.copyOf(out.start, n),
+                    Arrays.copyOf(out.end, n), Arrays.copyOf(out.rooms, n));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void copy(Version from, int i, Version to, int j) {
+        to.course[j] = from.course[i];
+        to.day[j] = from.day[i];
+        to.start[j] = from.start[i];
+        to.end[j] = from.end[i];
+        to.rooms[j] = from.rooms[i];
+    }
+
+    private static final class IntList {
+        int[] values = new int[16];
+        int size;
+
+        void add(int v) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = v;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.example.se302_examscheduler;
+
+import java.util.*;
+
+// Soft-constraint penalty of a timetable (lower is better). Hard rules are not scored here.
+// Every term depends only on exam days, and a course's terms only on its own students,
+// so moving one course is re-scored in O(its students x their exams).
+public class ScheduleScorer {
+
+    public enum Term {
+        SAME_DAY,
+        ADJACENT_DAYS,
+        LATE_LARGE_EXAM,
+        UNSCHEDULED
+    }
+
+    private final ScoreWeights weights;
+    final String weightsKey;            // the weights as built with; they are mutable
+    private final Map<Course, Integer> index = new HashMap<>();
+    private final int[] size;
+    private final int[][] studentsOf;   // course -> student indexes
+    private final int[][] coursesOf;    // student -> course indexes
+    private final int[] dayOf;          // course -> exam day index, -1 when unscheduled
+    private final long[] terms = new long[Term.values().length];
+
+    public ScheduleScorer(Schedule schedule, ScoreWeights weights) {
+        this(schedule.snapshot(), weights);
+    }
+
+    public ScheduleScorer(ScheduleSnapshot schedule, ScoreWeights weights) {
+        this.weights = weights;
+        this.weightsKey = weights.toString();
+        List<Course> courses = schedule.getCourses();
+        List<Student> students = schedule.getStudents();
+
+        for (int c = 0; c < courses.size(); c++) index.put(courses.get(c), c);
+        Map<Student, Integer> studentIndex = new HashMap<>();
+        for (int s = 0; s < students.size(); s++) studentIndex.put(students.get(s), s);
+
+        this.size = new int[courses.size()];
+        this.studentsOf = new int[courses.size()][];
+        for (int c = 0; c < courses.size(); c++) {
+            List<Student> enrolled = courses.get(c).getStudents();
+            size[c] = enrolled.size();
+            studentsOf[c] = enrolled.stream().map(studentIndex::get).filter(Objects::nonNull)
+                    .mapToInt(Integer::intValue).toArray();
+        }
+        this.coursesOf = new int[students.size()][];
+        for (int s = 0; s < students.size(); s++) {
+            coursesOf[s] = students.get(s).getCourses().stream().map(index::get).filter(Objects::nonNull)
+                    .mapToInt(Integer::intValue).distinct().toArray();
+        }
+
+        this.dayOf = new int[courses.size()];
+        Arrays.fill(dayOf, -1);
+        for (ExamSession es : schedule.getExamSessions()) {
+            Integer c = index.get(es.getCourse());
+            if (c != null) dayOf[c] = es.getSlot().getDayIndex();
+        }
+
+        for (int c = 0; c < dayOf.length; c++) addCourseTerms(c, dayOf[c], terms, 1);
+        for (int[] taken : coursesOf) {
+            for (int i = 0; i < taken.length; i++) {
+                for (int j = i + 1; j < taken.length; j++) {
+                    addPair(dayOf[taken[i]], dayOf[taken[j]], terms, 1);
+                }
+            }
+        }
+    }
+
+    // Cached on the snapshot, so scoring the same version again is free
+    public static long score(ScheduleSnapshot schedule, ScoreWeights weights) {
+        return schedule.scorer(weights).total();
+    }
+
+    public static long score(Schedule schedule, ScoreWeights weights) {
+        return score(schedule.snapshot(), weights);
+    }
+
+    public long total() {
+        long sum = 0;
+        for (long t : terms) sum += t;
+        return sum;
+    }
+
+    public long get(Term term) {
+        return terms[term.ordinal()];
+    }
+
+    // Change in total if the course moved to the target slot (null = unscheduled); nothing is modified.
+    public long deltaMove(Course course, ExamSlot target) {
+        long[] delta = new long[terms.length];
+        moveTerms(index.get(course), target == null ? -1 : target.getDayIndex(), delta);
+        long sum = 0;
+        for (long d : delta) sum += d;
+        return sum;
+    }
+
+    public void applyMove(Course course, ExamSlot target) {
+        int c = index.get(course);
+        int day = target == null ? -1 : target.getDayIndex();
+        moveTerms(c, day, terms);
+        dayOf[c] = day;
+    }
+
+    public String describe() {
+        StringBuilder sb = new StringBuilder("Score: ").append(total());
+        for (Term t : Term.values()) {
+            sb.append(" | ").append(t.name().toLowerCase(Locale.ROOT)).append('=').append(terms[t.ordinal()]);
+        }
+        return sb.toString();
+    }
+
+    private void moveTerms(int c, int newDay, long[] acc) {
+        int oldDay = dayOf[c];
+        if (oldDay == newDay) return;
+        addCourseTerms(c, oldDay, acc, -1);
+        addCourseTerms(c, newDay, acc, 1);
+        for (int s : studentsOf[c]) {
+            for (int o : coursesOf[s]) {
+                if (o == c) continue;
+                addPair(oldDay, dayOf[o], acc, -1);
+                addPair(newDay, dayOf[o], acc, 1);
+            }
+        }
+    }
+
+    private void addCourseTerms(int c, int day, long[] acc, int sign) {
+        if (day < 0) {
+            acc[Term.UNSCHEDULED.ordinal()] += sign * weights.getUnscheduled();
+        } else if (size[c] >= weights.getLargeExamSize()) {
+            acc[Term.LATE_LARGE_EXAM.ordinal()] += sign * weights.getLateLargeExam() * day;
+        }
+    }
+
+    private void addPair(int dayA, int dayB, long[] acc, int sign) {
+        if (dayA < 0 || dayB < 0) return;
+        int gap = Math.abs(dayA - dayB);
+        if (gap == 0) {
+            acc[Term.SAME_DAY.ordinal()] += sign * weights.getSameDay();
+        } else if (gap == 1) {
+            acc[Term.ADJACENT_DAYS.ordinal()] += sign * weights.getAdjacentDays();
+        }
+    }
+}
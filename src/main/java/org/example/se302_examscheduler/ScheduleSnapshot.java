@@ -0,0 +1,153 @@
+package org.example.se302_examscheduler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// One published version of a Schedule. Readers (table, exports, validation) hold on to a snapshot
+// and never see a timetable that is half built. Its course, student, room and session lists are
+// fixed; rosters are read through the Course and Student objects, which replace their lists on an
+// edit instead of changing them, so a reader is never disturbed but may see a newer roster.
+public final class ScheduleSnapshot {
+
+    static final ScheduleSnapshot EMPTY =
+            new ScheduleSnapshot(0, 0, List.of(), List.of(), List.of(), List.of(), List.of(), false);
+
+    private final long version;
+    private final long dataVersion;
+    private final List<Course> courses;
+    private final List<Student> students;
+    private final List<Classroom> classrooms;
+    private final List<ExamSlot> examSlots;
+    private final List<ExamSession> examSessions;
+    private final boolean roomSharing;
+    private volatile Map<Course, ExamSession> sessionByCourse;
+    private volatile List<List<Course>> components;
+    private volatile ScheduleViews views;
+    private volatile ScheduleValidator.State validation;
+    private volatile ScheduleScorer scorer;
+
+    ScheduleSnapshot(long version, long dataVersion, List<Course> courses, List<Student> students, List<Classroom> classrooms,
+                     List<ExamSlot> examSlots, List<ExamSession> examSessions, boolean roomSharing) {
+        this.version = version;
+        this.dataVersion = dataVersion;
+        this.courses = List.copyOf(courses);
+        this.students = List.copyOf(students);
+        this.classrooms = List.copyOf(classrooms);
+        this.examSlots = List.copyOf(examSlots);
+        this.examSessions = List.copyOf(examSessions);
+        this.roomSharing = roomSharing;
+    }
+
+    // Increases by one with every publish
+    public long getVersion() {
+        return version;
+    }
+
+    // Changes only when courses, students, rooms or enrolments were edited, not when sessions were
+    public long getDataVersion() {
+        return dataVersion;
+    }
+
+    public List<Course> getCourses() {
+        return courses;
+    }
+
+    public List<Student> getStudents() {
+        return students;
+    }
+
+    public List<Classroom> getClassrooms() {
+        return classrooms;
+    }
+
+    public List<ExamSlot> getExamSlots() {
+        return examSlots;
+    }
+
+    public List<ExamSession> getExamSessions() {
+        return examSessions;
+    }
+
+    public boolean isRoomSharing() {
+        return roomSharing;
+    }
+
+    public ExamSession sessionOf(Course course) {
+        Map<Course, ExamSession> map = sessionByCourse;
+        if (map == null) {
+            map = new HashMap<>();
+            for (ExamSession s : examSessions) map.put(s.getCourse(), s);
+            sessionByCourse = map;
+        }
+        return map.get(course);
+    }
+
+    // The student's sessions in enrolment order, found through their courses rather than a scan
+    public List<ExamSession> sessionsOf(Student student) {
+        List<Course> courses = student.getCourses();
+        List<ExamSession> out = new ArrayList<>(courses.size());
+        for (Course c : courses) {
+            ExamSession s = sessionOf(c);
+            if (s != null) out.add(s);
+        }
+        return out;
+    }
+
+    // Grouped and sorted sessions for the views and exports, built on first use
+    public ScheduleViews views() {
+        ScheduleViews v = views;
+        if (v == null) {
+            v = new ScheduleViews(examSessions);
+            views = v;
+        }
+        return v;
+    }
+
+    // Enrolment components of the courses, built on first use. They depend only on the data, so a
+    // later version with the same data version takes them over instead of rebuilding.
+    List<List<Course>> courseComponents() {
+        List<List<Course>> c = components;
+        if (c == null) {
+            c = ConflictGraph.components(courses);
+            components = c;
+        }
+        return c;
+    }
+
+    // Score of this version under the given weights, built on first use and kept for the weights last
+    // asked for. Shared by every reader: read its totals, never apply moves to it.
+    ScheduleScorer scorer(ScoreWeights weights) {
+        ScheduleScorer s = scorer;
+        if (s == null || !s.weightsKey.equals(weights.toString())) {
+            s = new ScheduleScorer(this, weights);
+            scorer = s;
+        }
+        return s;
+    }
+
+    // The cached scorer if this version was already scored under these weights, otherwise null
+    ScheduleScorer scorerIfBuilt(ScoreWeights weights) {
+        ScheduleScorer s = scorer;
+        return s != null && s.weightsKey.equals(weights.toString()) ? s : null;
+    }
+
+    // Incremental validation state; see ScheduleValidator
+    ScheduleValidator.State validation() {
+        return validation;
+    }
+
+    void setValidation(ScheduleValidator.State state) {
+        validation = state;
+    }
+
+    void inheritCaches(ScheduleSnapshot previous) {
+        if (previous.dataVersion == dataVersion && previous.courses.equals(courses)) components = previous.components;
+        if (previous.examSessions.equals(examSessions)) views = previous.views;
+        if (previous.dataVersion == dataVersion && previous.examSessions.equals(examSessions)
+                && previous.courses.equals(courses) && previous.students.equals(students)) scorer = previous.scorer;
+        // Shared with the previous version; whichever of the two is validated brings it up to date
+        if (previous.dataVersion == dataVersion) validation = previous.validation;
+    }
+}
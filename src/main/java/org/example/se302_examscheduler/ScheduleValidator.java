@@ -0,0 +1,239 @@
+package org.example.se302_examscheduler;
+
+import java.util.*;
+
+public final class ScheduleValidator {
+
+    private ScheduleValidator() {}
+
+    public static class ValidationResult {
+        final int issues;
+        final String report;
+
+        ValidationResult(int issues, String report) {
+            this.issues = issues;
+            this.report = report;
+        }
+
+        public int getIssues() {
+            return issues;
+        }
+
+        public String getReport() {
+            return report;
+        }
+    }
+
+    public static ValidationResult validate(Schedule schedule) {
+        return validate(schedule.snapshot());
+    }
+
+    public static ValidationResult validate(ScheduleSnapshot schedule) {
+        long t0 = SchedulerMetrics.start();
+        ValidationResult result = check(schedule);
+        SchedulerMetrics.stop(SchedulerMetrics.Phase.VALIDATE, t0, result.issues);
+        return result;
+    }
+
+    // Each snapshot keeps the state it was checked with, and a new version takes over its
+    // predecessor's (ScheduleSnapshot.inheritCaches). A state holding another version with the same
+    // data is brought up to date by re-checking only the students and room slots of the courses
+    // whose sessions changed.
+    private static ValidationResult check(ScheduleSnapshot schedule) {
+        State state = schedule.validation();
+        if (state != null) {
+            synchronized (state) {
+                if (state.snapshot == schedule) return state.result;
+                if (state.sameData(schedule)) {
+                    state.update(schedule);
+                    return state.result;
+                }
+            }
+        }
+        state = new State(schedule);
+        schedule.setValidation(state);
+        return state.result;
+    }
+
+    private static final class RoomUse {
+        final Classroom room;
+        final ExamSlot slot;
+        int sessions;
+        int seats;
+        int issues;
+        String report = "";
+
+        RoomUse(Classroom room, ExamSlot slot) {
+            this.room = room;
+            this.slot = slot;
+        }
+    }
+
+    static final class State {
+        ScheduleSnapshot snapshot;
+        ValidationResult result;
+        final Map<Student, Integer> studentIndex = new HashMap<>();
+        final int[] studentIssues;
+        final String[] studentReport;
+        final Map<Classroom, TreeMap<Integer, RoomUse>> rooms = new LinkedHashMap<>();
+        int roomIssues;
+        int studentIssueTotal;
+
+        State(ScheduleSnapshot schedule) {
+            this.snapshot = schedule;
+            List<Student> students = schedule.getStudents();
+            for (int i = 0; i < students.size(); i++) studentIndex.put(students.get(i), i);
+            this.studentIssues = new int[students.size()];
+            this.studentReport = new String[students.size()];
+            Arrays.fill(studentReport, "");
+            for (Classroom room : schedule.getClassrooms()) rooms.put(room, new TreeMap<>());
+
+            for (ExamSession s : schedule.getExamSessions()) addUse(s, 1, null);
+            for (TreeMap<Integer, RoomUse> cells : rooms.values()) {
+                for (RoomUse use : cells.values()) checkRoom(use);
+            }
+            for (Student st : students) checkStudent(st);
+            result = assemble();
+        }
+
+        boolean sameData(ScheduleSnapshot next) {
+            return next.getDataVersion() == snapshot.getDataVersion()
+                    && next.isRoomSharing() == snapshot.isRoomSharing()
+                    && sameElements(next.getCourses(), snapshot.getCourses())
+                    && sameElements(next.getStudents(), snapshot.getStudents())
+                    && sameElements(next.getClassrooms(), snapshot.getClassrooms());
+        }
+
+        void update(ScheduleSnapshot next) {
+            ScheduleSnapshot prev = snapshot;
+            Set<Course> changed = new LinkedHashSet<>();
+            for (ExamSession s : prev.getExamSessions()) {
+                if (!sameSession(s, next.sessionOf(s.getCourse()))) changed.add(s.getCourse());
+            }
+            for (ExamSession s : next.getExamSessions()) {
+                if (prev.sessionOf(s.getCourse()) == null) changed.add(s.getCourse());
+            }
+            snapshot = next;
+
+            Set<RoomUse> cells = new LinkedHashSet<>();
+            Set<Student> affected = new LinkedHashSet<>();
+            for (Course c : changed) {
+                ExamSession before = prev.sessionOf(c);
+                ExamSession after = next.sessionOf(c);
+                if (before != null) addUse(before, -1, cells);
+                if (after != null) addUse(after, 1, cells);
+                affected.addAll(c.getStudents());
+            }
+            for (RoomUse use : cells) checkRoom(use);
+            for (Student st : affected) checkStudent(st);
+            result = assemble();
+        }
+
+        private void addUse(ExamSession s, int sign, Set<RoomUse> touched) {
+            for (int i = 0; i < s.getClassrooms().size(); i++) {
+                Classroom room = s.getClassrooms().get(i);
+                RoomUse use = rooms.computeIfAbsent(room, k -> new TreeMap<>())
+                        .computeIfAbsent(s.getSlot().getOrdinal(), k -> new RoomUse(room, s.getSlot()));
+                use.sessions += sign;
+                use.seats += sign * s.getSeats(i);
+                if (touched != null) touched.add(use);
+            }
+        }
+
+        private void checkRoom(RoomUse use) {
+            roomIssues -= use.issues;
+            use.issues = 0;
+            use.report = "";
+            if (use.sessions >= 2) {
+                if (!snapshot.isRoomSharing()) {
+                    // One issue per session beyond the first
+                    use.issues = use.sessions - 1;
+                    use.report = ("Room double-booked: " + use.room.getName() + " @ " + use.slot + "\n")
+                            .repeat(use.issues);
+                } else if (use.seats > use.room.getCapacity()) {
+                    use.issues = 1;
+                    use.report = "Shared room over capacity: " + use.room.getName() + " @ " + use.slot
+                            + " (" + use.seats + " seats > " + use.room.getCapacity() + ")\n";
+                }
+            }
+            roomIssues += use.issues;
+        }
+
+        private void checkStudent(Student st) {
+            Integer idx = studentIndex.get(st);
+            if (idx == null) return;
+            List<ExamSession> sessions = snapshot.sessionsOf(st).stream()
+                    .sorted(Comparator.comparingInt((ExamSession s) -> s.getSlot().getOrdinal()))
+                    .toList();
+
+            int issues = 0;
+            StringBuilder report = new StringBuilder();
+            int i = 0;
+            while (i < sessions.size()) {
+                int day = sessions.get(i).getSlot().getDayIndex();
+                int j = i;
+                while (j < sessions.size() && sessions.get(j).getSlot().getDayIndex() == day) {
+                    if (j > i && sessions.get(j - 1).getSlot().isConsecutiveWith(sessions.get(j).getSlot())) {
+                        issues++;
+                        report.append("Back-to-back exams: ").append(st.getId())
+                                .append(" (").append(sessions.get(j - 1).getCourse().getCode())
+                                .append(" then ").append(sessions.get(j).getCourse().getCode()).append(") on ")
+                                .append(sessions.get(j).getSlot().getDate()).append("\n");
+                    }
+                    j++;
+                }
+                if (j - i > 2) {
+                    issues++;
+                    report.append("More than 2 exams/day: ").append(st.getId())
+                            .append(" has ").append(j - i).append(" exams on ")
+                            .append(sessions.get(i).getSlot().getDate()).append("\n");
+                }
+                i = j;
+            }
+
+            studentIssueTotal += issues - studentIssues[idx];
+            studentIssues[idx] = issues;
+            studentReport[idx] = report.toString();
+        }
+
+        // Capacity is per session and cheap, so it is always re-checked; the rest is read back
+        private ValidationResult assemble() {
+            StringBuilder report = new StringBuilder();
+            int issues = roomIssues + studentIssueTotal;
+            for (ExamSession s : snapshot.getExamSessions()) {
+                if (s.getTotalCapacity() < s.getCourse().getStudents().size()) {
+                    issues++;
+                    report.append("Capacity issue: ").append(s.getCourse().getCode())
+                            .append(" in ").append(s.getRoomNames())
+                            .append(" (").append(s.getCourse().getStudents().size())
+                            .append(" students > ").append(s.getTotalCapacity()).append(")\n");
+                }
+            }
+            if (issues == 0) return new ValidationResult(0, "No issues found. ✅");
+
+            for (TreeMap<Integer, RoomUse> cells : rooms.values()) {
+                for (RoomUse use : cells.values()) report.append(use.report);
+            }
+            for (String r : studentReport) report.append(r);
+            return new ValidationResult(issues, report.toString());
+        }
+    }
+
+    private static boolean sameSession(ExamSession a, ExamSession b) {
+        if (a == b) return true;
+        if (a == null || b == null) return false;
+        if (!a.getSlot().equals(b.getSlot()) || !a.getClassrooms().equals(b.getClassrooms())) return false;
+        for (int i = 0; i < a.getClassrooms().size(); i++) {
+            if (a.getSeats(i) != b.getSeats(i)) return false;
+        }
+        return true;
+    }
+
+    private static boolean sameElements(List<?> a, List<?> b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            if (a.get(i) != b.get(i)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.se302_examscheduler;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// The sessions of one snapshot grouped and sorted the ways the views and exports show them: by
+// time, by day, by room and by course. Built once per snapshot on first use (see
+// ScheduleSnapshot.views) and shared by every reader of that version; a new version builds its own,
+// unless its sessions are the very same ones.
+public final class ScheduleViews {
+
+    public static class RoomUse {
+        final Classroom room;
+        final ExamSession session;
+        final int seats;
+        boolean shared;
+
+        RoomUse(Classroom room, ExamSession session, int seats) {
+            this.room = room;
+            this.session = session;
+            this.seats = seats;
+        }
+
+        public Classroom getRoom() {
+            return room;
+        }
+
+        public ExamSession getSession() {
+            return session;
+        }
+
+        public int getSeats() {
+            return seats;
+        }
+
+        // Another exam sits in the same room and slot
+        public boolean isShared() {
+            return shared;
+        }
+    }
+
+    private final List<ExamSession> byTime;
+    private final Map<Course, Integer> rank;
+    private final Map<LocalDate, List<ExamSession>> byDay;
+    private final List<RoomUse> roomUses;
+    private final Map<String, List<RoomUse>> byRoom;
+    private final List<ExamSession> byCourse;
+
+    ScheduleViews(List<ExamSession> sessions) {
+        if (SchedulerMetrics.isEnabled()) SchedulerMetrics.increment(SchedulerMetrics.Counter.VIEW_BUILDS);
+        List<ExamSession> time = new ArrayList<>(sessions);
+        time.sort(Comparator.comparing((ExamSession s) -> s.getSlot().getDate())
+                .thenComparing(s -> s.getSlot().getStartTime())
+                .thenComparing(s -> s.getCourse().getCode()));
+        byTime = Collections.unmodifiableList(time);
+
+        rank = new HashMap<>();
+        Map<LocalDate, List<ExamSession>> days = new LinkedHashMap<>();
+        for (int i = 0; i < time.size(); i++) {
+            ExamSession s = time.get(i);
+            rank.put(s.getCourse(), i);
+            days.computeIfAbsent(s.getSlot().getDate(), k -> new ArrayList<>()).add(s);
+        }
+        days.replaceAll((k, v) -> Collections.unmodifiableList(v));
+        byDay = Collections.unmodifiableMap(days);
+
+        // One entry per room a session occupies, in time order, so split sessions show up under every
+        // room they use; entries in the same room and slot as another exam are flagged as shared
+        List<RoomUse> uses = new ArrayList<>(time.size());
+        Map<Classroom, Map<ExamSlot, RoomUse>> first = new HashMap<>();
+        for (ExamSession s : time) {
+            for (int i = 0; i < s.getClassrooms().size(); i++) {
+                RoomUse u = new RoomUse(s.getClassrooms().get(i), s, s.getSeats(i));
+                RoomUse prev = first.computeIfAbsent(u.room, k -> new HashMap<>()).putIfAbsent(s.getSlot(), u);
+                if (prev != null) {
+                    prev.shared = true;
+                    u.shared = true;
+                }
+                uses.add(u);
+            }
+        }
+        uses.sort(Comparator.comparing((RoomUse u) -> u.room.getName()));  // stable: time order within a room
+        roomUses = Collections.unmodifiableList(uses);
+        Map<String, List<RoomUse>> rooms = new LinkedHashMap<>();
+        for (RoomUse u : uses) rooms.computeIfAbsent(u.room.getName(), k -> new ArrayList<>()).add(u);
+        rooms.replaceAll((k, v) -> Collections.unmodifiableList(v));
+        byRoom = Collections.unmodifiableMap(rooms);
+
+        List<ExamSession> course = new ArrayList<>(sessions);
+        course.sort(Comparator.comparing(s -> s.getCourse().getCode()));
+        byCourse = Collections.unmodifiableList(course);
+    }
+
+    // Date, start time, then course code
+    public List<ExamSession> byTime() {
+        return byTime;
+    }
+
+    // Days in date order, each in time order
+    public Map<LocalDate, List<ExamSession>> byDay() {
+        return byDay;
+    }
+
+    // Every room use, by room name and then time
+    public List<RoomUse> roomUses() {
+        return roomUses;
+    }
+
+    // Room names in order, each with its uses in time order
+    public Map<String, List<RoomUse>> byRoom() {
+        return byRoom;
+    }
+
+    public List<ExamSession> byCourse() {
+        return byCourse;
+    }
+
+    // Orders any subset of this snapshot's sessions (a student's, say) in time order without
+    // comparing dates and times again
+    public Comparator<ExamSession> timeOrder() {
+        return Comparator.comparingInt(s -> rank.get(s.getCourse()));
+    }
+
+    public List<ExamSession> inTimeOrder(List<ExamSession> sessions) {
+        List<ExamSession> out = new ArrayList<>(sessions);
+        out.sort(timeOrder());
+        return out;
+    }
+}
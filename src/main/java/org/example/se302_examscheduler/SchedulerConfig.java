@@ -0,0 +1,115 @@
+package org.example.se302_examscheduler;
+
+import java.util.List;
+
+public class SchedulerConfig {
+
+    public enum Strategy {
+        LARGEST_FIRST,
+        MOST_CONSTRAINED_FIRST
+    }
+
+    public enum Engine {
+        GREEDY,
+        EXACT
+    }
+
+    private Engine engine = Engine.GREEDY;
+    private Strategy strategy = Strategy.LARGEST_FIRST;
+    private long timeBudgetMs = 0;
+    private SlotCalendar calendar = SlotCalendar.defaultCalendar();
+    private boolean allowRoomSplitting = false;
+    private boolean allowRoomSharing = false;
+    private ScoreWeights scoreWeights = new ScoreWeights();
+    private boolean parallelComponents = true;
+    private List<ExamSession> seed = List.of();
+    private boolean warmStart = false;
+
+    public Engine getEngine() {
+        return engine;
+    }
+
+    public void setEngine(Engine engine) {
+        this.engine = engine;
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(Strategy strategy) {
+        this.strategy = strategy;
+    }
+
+    // 0 means no limit; courses not reached before the budget runs out are left unscheduled
+    public long getTimeBudgetMs() {
+        return timeBudgetMs;
+    }
+
+    public void setTimeBudgetMs(long timeBudgetMs) {
+        this.timeBudgetMs = timeBudgetMs;
+    }
+
+    public SlotCalendar getCalendar() {
+        return calendar;
+    }
+
+    public void setCalendar(SlotCalendar calendar) {
+        this.calendar = calendar;
+    }
+
+    // Lets a course that fits no single free room be spread over several rooms in one slot
+    public boolean isAllowRoomSplitting() {
+        return allowRoomSplitting;
+    }
+
+    public void setAllowRoomSplitting(boolean allowRoomSplitting) {
+        this.allowRoomSplitting = allowRoomSplitting;
+    }
+
+    // Lets several non-conflicting courses sit in one room and slot while seats remain
+    public boolean isAllowRoomSharing() {
+        return allowRoomSharing;
+    }
+
+    public void setAllowRoomSharing(boolean allowRoomSharing) {
+        this.allowRoomSharing = allowRoomSharing;
+    }
+
+    // Soft-constraint weights used to score the finished timetable
+    public ScoreWeights getScoreWeights() {
+        return scoreWeights;
+    }
+
+    public void setScoreWeights(ScoreWeights scoreWeights) {
+        this.scoreWeights = scoreWeights;
+    }
+
+    // Schedules groups of courses that share no students on separate threads
+    public boolean isParallelComponents() {
+        return parallelComponents;
+    }
+
+    public void setParallelComponents(boolean parallelComponents) {
+        this.parallelComponents = parallelComponents;
+    }
+
+    // Earlier placements to keep where they are still feasible; matched by course code, room name
+    // and slot date/time, so they may come from another load of the data
+    public List<ExamSession> getSeed() {
+        return seed;
+    }
+
+    public void setSeed(List<ExamSession> seed) {
+        this.seed = seed == null ? List.of() : List.copyOf(seed);
+    }
+
+    // Seed with the schedule's current sessions (the saved timetable) when no explicit seed is set
+    public boolean isWarmStart() {
+        return warmStart;
+    }
+
+    public void setWarmStart(boolean warmStart) {
+        this.warmStart = warmStart;
+    }
+}
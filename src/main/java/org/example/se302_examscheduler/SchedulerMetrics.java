@@ -0,0 +1,224 @@
+package org.example.se302_examscheduler;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Process-wide counters and latency histograms. Disabled by default (-Dexamscheduler.metrics=true to enable);
+// hot loops read isEnabled() once per run so the disabled path costs a single branch.
+public final class SchedulerMetrics {
+
+    public enum Counter {
+        SLOT_PROBES,
+        ROOM_PROBES,
+        REJECT_CLASH,
+        REJECT_CONSECUTIVE,
+        REJECT_DAILY_LIMIT,
+        REJECT_CAPACITY,
+        REJECT_ROOM_BUSY,
+        PLACEMENTS,
+        UNSCHEDULED,
+        SEEDS_KEPT,
+        VIEW_BUILDS,
+        IMPORTED_ROWS,
+        DB_QUERIES,
+        DB_TRANSACTIONS
+    }
+
+    public enum Phase {
+        GENERATE,
+        SLOT_SCAN,
+        CONSTRAINT_CHECK,
+        ROOM_SEARCH,
+        EXACT_SOLVE,
+        VALIDATE,
+        IMPORT,
+        DB_QUERY,
+        DB_TRANSACTION
+    }
+
+    private static final String MBEAN_NAME = "org.example.se302_examscheduler:type=SchedulerMetrics";
+
+    private static volatile boolean enabled = Boolean.getBoolean("examscheduler.metrics");
+
+    private static final LongAdder[] COUNTERS = new LongAdder[Counter.values().length];
+    private static final Histogram[] HISTOGRAMS = new Histogram[Phase.values().length];
+
+    static {
+        for (int i = 0; i < COUNTERS.length; i++) COUNTERS[i] = new LongAdder();
+        for (int i = 0; i < HISTOGRAMS.length; i++) HISTOGRAMS[i] = new Histogram();
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(new MXBeanImpl(), new ObjectName(MBEAN_NAME));
+        } catch (Exception ignored) {}
+    }
+
+    private SchedulerMetrics() {}
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    public static void increment(Counter c) {
+        COUNTERS[c.ordinal()].increment();
+    }
+
+    public static void add(Counter c, long n) {
+        if (n != 0) COUNTERS[c.ordinal()].add(n);
+    }
+
+    public static void record(Phase p, long nanos) {
+        HISTOGRAMS[p.ordinal()].record(nanos);
+    }
+
+    // Returns a start stamp for stop(), or 0 when metrics are off.
+    public static long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    public static void stop(Phase p, long startNanos) {
+        stop(p, startNanos, 0);
+    }
+
+    // Coarse phases also emit a JFR event, which is free unless a recording is running.
+    public static void stop(Phase p, long startNanos, long items) {
+        if (startNanos == 0L) return;
+        long nanos = System.nanoTime() - startNanos;
+        record(p, nanos);
+
+        SchedulerPhaseEvent event = new SchedulerPhaseEvent();
+        if (event.shouldCommit()) {
+            event.phase = p.name();
+            event.durationNanos = nanos;
+            event.items = items;
+            event.commit();
+        }
+    }
+
+    public static void reset() {
+        for (LongAdder c : COUNTERS) c.reset();
+        for (Histogram h : HISTOGRAMS) h.reset();
+    }
+
+    public static Map<String, Long> counters() {
+        Map<String, Long> out = new LinkedHashMap<>();
+        for (Counter c : Counter.values()) {
+            out.put(c.name(), COUNTERS[c.ordinal()].sum());
+        }
+        return out;
+    }
+
+    public static Map<Phase, String> phaseSummaries() {
+        Map<Phase, String> out = new EnumMap<>(Phase.class);
+        for (Phase p : Phase.values()) {
+            out.put(p, HISTOGRAMS[p.ordinal()].summary());
+        }
+        return out;
+    }
+
+    public static String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Metrics ").append(enabled ? "enabled" : "disabled").append("\n\n");
+        for (Map.Entry<String, Long> e : counters().entrySet()) {
+            sb.append(String.format("%-20s %d%n", e.getKey(), e.getValue()));
+        }
+        sb.append("\n");
+        for (Map.Entry<Phase, String> e : phaseSummaries().entrySet()) {
+            sb.append(String.format("%-20s %s%n", e.getKey(), e.getValue()));
+        }
+        return sb.toString();
+    }
+
+    // Log2-bucketed latency histogram; bucket i holds samples in [2^i, 2^(i+1)) ns.
+    private static final class Histogram {
+        private final LongAdder[] buckets = new LongAdder[64];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+
+        Histogram() {
+            for (int i = 0; i < buckets.length; i++) buckets[i] = new LongAdder();
+        }
+
+        void record(long nanos) {
+            long v = Math.max(1L, nanos);
+            buckets[63 - Long.numberOfLeadingZeros(v)].increment();
+            count.increment();
+            total.add(v);
+        }
+
+        void reset() {
+            for (LongAdder b : buckets) b.reset();
+            count.reset();
+            total.reset();
+        }
+
+        long percentile(long n, double q) {
+            long rank = (long) Math.ceil(n * q);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i].sum();
+                if (seen >= rank) return 1L << Math.min(62, i + 1);
+            }
+            return 0;
+        }
+
+        String summary() {
+            long n = count.sum();
+            if (n == 0) return "n=0";
+            return String.format("n=%d total=%.2fms mean=%.1fus p50<%.1fus p99<%.1fus",
+                    n,
+                    total.sum() / 1e6,
+                    total.sum() / (double) n / 1e3,
+                    percentile(n, 0.50) / 1e3,
+                    percentile(n, 0.99) / 1e3);
+        }
+    }
+
+    public interface SchedulerMetricsMXBean {
+        boolean isEnabled();
+
+        void setEnabled(boolean enabled);
+
+        Map<String, Long> getCounters();
+
+        Map<String, String> getPhaseLatencies();
+
+        void reset();
+    }
+
+    private static final class MXBeanImpl implements SchedulerMetricsMXBean {
+        @Override
+        public boolean isEnabled() {
+            return SchedulerMetrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean on) {
+            SchedulerMetrics.setEnabled(on);
+        }
+
+        @Override
+        public Map<String, Long> getCounters() {
+            return counters();
+        }
+
+        @Override
+        public Map<String, String> getPhaseLatencies() {
+            Map<String, String> out = new LinkedHashMap<>();
+            phaseSummaries().forEach((p, s) -> out.put(p.name(), s));
+            return out;
+        }
+
+        @Override
+        public void reset() {
+            SchedulerMetrics.reset();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.se302_examscheduler;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("org.example.se302_examscheduler.SchedulerPhase")
+@Label("Scheduler Phase")
+@Category("Exam Scheduler")
+@Description("One completed scheduler, import or database phase")
+public class SchedulerPhaseEvent extends jdk.jfr.Event {
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long durationNanos;
+
+    @Label("Items")
+    long items;
+}
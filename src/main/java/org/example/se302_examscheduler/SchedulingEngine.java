@@ -0,0 +1,15 @@
+package org.example.se302_examscheduler;
+
+import java.time.LocalDate;
+
+// Common entry point for the greedy and the exact scheduler.
+public interface SchedulingEngine {
+
+    SchedulingResult generate(Schedule schedule, LocalDate startDate, LocalDate endDate, SchedulerConfig config);
+
+    static SchedulingEngine forConfig(SchedulerConfig config) {
+        return config.getEngine() == SchedulerConfig.Engine.EXACT
+                ? new ExactSchedulingEngine()
+                : new ExamSchedulerEngine();
+    }
+}
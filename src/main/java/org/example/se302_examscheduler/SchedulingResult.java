@@ -3,12 +3,34 @@ package org.example.se302_examscheduler;
 import java.util.List;
 
 public class SchedulingResult {
+
+    public enum Status {
+        HEURISTIC,  // greedy result, no optimality claim
+        OPTIMAL,    // every course placed
+        INFEASIBLE, // proven that no timetable places every course; unscheduled is the proven minimum
+        TIMEOUT     // exact search stopped early; best timetable found so far
+    }
+
     private final List<ExamSession> sessions;
     private final List<Course> unscheduledCourses;
+    private final boolean timedOut;
+    private final Status status;
+    private long score;
 
     public SchedulingResult(List<ExamSession> sessions, List<Course> unscheduledCourses) {
+        this(sessions, unscheduledCourses, false);
+    }
+
+    public SchedulingResult(List<ExamSession> sessions, List<Course> unscheduledCourses, boolean timedOut) {
+        this(sessions, unscheduledCourses, timedOut, Status.HEURISTIC);
+    }
+
+    public SchedulingResult(List<ExamSession> sessions, List<Course> unscheduledCourses, boolean timedOut,
+                            Status status) {
         this.sessions = sessions;
         this.unscheduledCourses = unscheduledCourses;
+        this.timedOut = timedOut;
+        this.status = status;
     }
 
     public List<ExamSession> getSessions() {
@@ -18,4 +40,21 @@ public class SchedulingResult {
     public List<Course> getUnscheduledCourses() {
         return unscheduledCourses;
     }
+
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    // Soft-constraint penalty from ScheduleScorer; lower is better
+    public long getScore() {
+        return score;
+    }
+
+    public void setScore(long score) {
+        this.score = score;
+    }
 }
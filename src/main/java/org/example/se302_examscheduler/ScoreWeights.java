@@ -0,0 +1,83 @@
+package org.example.se302_examscheduler;
+
+import java.util.Locale;
+
+// Weights of the soft constraints used by ScheduleScorer. A weight of 0 switches a term off.
+public class ScoreWeights {
+
+    private long sameDay = 5;
+    private long adjacentDays = 2;
+    private long lateLargeExam = 10;
+    private int largeExamSize = 100;
+    private long unscheduled = 1000;
+
+    // Per student, per pair of their exams on the same day
+    public long getSameDay() {
+        return sameDay;
+    }
+
+    public void setSameDay(long sameDay) {
+        this.sameDay = sameDay;
+    }
+
+    // Per student, per pair of their exams on consecutive exam days
+    public long getAdjacentDays() {
+        return adjacentDays;
+    }
+
+    public void setAdjacentDays(long adjacentDays) {
+        this.adjacentDays = adjacentDays;
+    }
+
+    // Per exam day a large exam is placed after the first one
+    public long getLateLargeExam() {
+        return lateLargeExam;
+    }
+
+    public void setLateLargeExam(long lateLargeExam) {
+        this.lateLargeExam = lateLargeExam;
+    }
+
+    public int getLargeExamSize() {
+        return largeExamSize;
+    }
+
+    public void setLargeExamSize(int largeExamSize) {
+        this.largeExamSize = largeExamSize;
+    }
+
+    // Per course left without an exam session
+    public long getUnscheduled() {
+        return unscheduled;
+    }
+
+    public void setUnscheduled(long unscheduled) {
+        this.unscheduled = unscheduled;
+    }
+
+    // "sameDay=5,adjacentDays=2,lateLargeExam=10,largeExamSize=100,unscheduled=1000"; missing keys keep defaults
+    public static ScoreWeights parse(String text) {
+        ScoreWeights w = new ScoreWeights();
+        if (text == null || text.isBlank()) return w;
+        for (String part : text.split(",")) {
+            String[] kv = part.split("=");
+            if (kv.length != 2) throw new IllegalArgumentException("Bad weight: " + part.trim());
+            long v = Long.parseLong(kv[1].trim());
+            switch (kv[0].trim().toLowerCase(Locale.ROOT)) {
+                case "sameday" -> w.setSameDay(v);
+                case "adjacentdays" -> w.setAdjacentDays(v);
+                case "latelargeexam" -> w.setLateLargeExam(v);
+                case "largeexamsize" -> w.setLargeExamSize((int) v);
+                case "unscheduled" -> w.setUnscheduled(v);
+                default -> throw new IllegalArgumentException("Unknown weight: " + kv[0].trim());
+            }
+        }
+        return w;
+    }
+
+    @Override
+    public String toString() {
+        return "sameDay=" + sameDay + ",adjacentDays=" + adjacentDays + ",lateLargeExam=" + lateLargeExam
+                + ",largeExamSize=" + largeExamSize + ",unscheduled=" + unscheduled;
+    }
+}
@@ -0,0 +1,239 @@
+package org.example.se302_examscheduler;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.TextStyle;
+import java.util.*;
+
+// Per-weekday period templates plus holidays. Slots produced here carry dense ints
+// (ordinal, day index, period index) so constraint checks never compare dates or times.
+public class SlotCalendar {
+
+    public static class Period {
+        private final LocalTime start;
+        private final LocalTime end;
+
+        public Period(LocalTime start, LocalTime end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        public LocalTime getStart() {
+            return start;
+        }
+
+        public LocalTime getEnd() {
+            return end;
+        }
+
+        @Override
+        public String toString() {
+            return start + "-" + end;
+        }
+    }
+
+    private final Map<DayOfWeek, List<Period>> templates = new EnumMap<>(DayOfWeek.class);
+    private final SortedSet<LocalDate> holidays = new TreeSet<>();
+
+    public static SlotCalendar defaultCalendar() {
+        SlotCalendar cal = new SlotCalendar();
+        List<Period> periods = List.of(
+                new Period(LocalTime.of(9, 0), LocalTime.of(11, 0)),
+                new Period(LocalTime.of(11, 30), LocalTime.of(13, 30)),
+                new Period(LocalTime.of(14, 0), LocalTime.of(16, 0)),
+                new Period(LocalTime.of(16, 30), LocalTime.of(18, 30)));
+        for (DayOfWeek d : DayOfWeek.values()) {
+            cal.setPeriods(d, periods);
+        }
+        return cal;
+    }
+
+    public List<Period> getPeriods(DayOfWeek day) {
+        return templates.getOrDefault(day, List.of());
+    }
+
+    public void setPeriods(DayOfWeek day, List<Period> periods) {
+        List<Period> sorted = new ArrayList<>(periods);
+        sorted.sort(Comparator.comparing(Period::getStart));
+        templates.put(day, List.copyOf(sorted));
+    }
+
+    public Set<LocalDate> getHolidays() {
+        return Collections.unmodifiableSortedSet(holidays);
+    }
+
+    public void addHoliday(LocalDate date) {
+        holidays.add(date);
+    }
+
+    public boolean isExamDay(LocalDate date) {
+        return !holidays.contains(date) && !getPeriods(date.getDayOfWeek()).isEmpty();
+    }
+
+    public int maxPeriodsPerDay() {
+        int max = 0;
+        for (List<Period> p : templates.values()) max = Math.max(max, p.size());
+        return max;
+    }
+
+    public List<ExamSlot> generateSlots(LocalDate startDate, LocalDate endDate) {
+        List<ExamSlot> slots = new ArrayList<>();
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) return slots;
+
+        int dayIndex = 0;
+        LocalDate date = startDate;
+        while (!date.isAfter(endDate)) {
+            if (isExamDay(date)) {
+                List<Period> periods = getPeriods(date.getDayOfWeek());
+                for (int p = 0; p < periods.size(); p++) {
+                    Period period = periods.get(p);
+                    slots.add(new ExamSlot(date, period.getStart(), period.getEnd(), slots.size(), dayIndex, p));
+                }
+                dayIndex++;
+            }
+            date = date.plusDays(1);
+        }
+        return slots;
+    }
+
+    // Assigns indexes to slots that were stored without them (e.g. loaded from the DB).
+    // Returns one canonical, ordinal-sorted instance per distinct date/start/end.
+    public List<ExamSlot> indexSlots(Collection<ExamSlot> raw) {
+        List<ExamSlot> distinct = new ArrayList<>(new LinkedHashSet<>(raw));
+        distinct.sort(Comparator.comparing(ExamSlot::getDate)
+                .thenComparing(ExamSlot::getStartTime)
+                .thenComparing(ExamSlot::getEndTime));
+
+        List<ExamSlot> out = new ArrayList<>(distinct.size());
+        int dayIndex = -1;
+        int rank = 0;
+        LocalDate currentDay = null;
+        LocalTime lastStart = null;
+        for (ExamSlot s : distinct) {
+            if (!s.getDate().equals(currentDay)) {
+                currentDay = s.getDate();
+                dayIndex++;
+                rank = 0;
+                lastStart = null;
+            } else if (!s.getStartTime().equals(lastStart)) {
+                rank++;
+            }
+            lastStart = s.getStartTime();
+
+            int period = periodOf(s.getDate().getDayOfWeek(), s.getStartTime());
+            if (period < 0) period = rank;
+            out.add(new ExamSlot(s.getDate(), s.getStartTime(), s.getEndTime(), out.size(), dayIndex, period));
+        }
+        return out;
+    }
+
+    // The slots of the window start..end (the used dates' range when no window is known), so a reloaded
+    // timetable gets the same ordinals and day indexes as the run that produced it. Used slots the
+    // calendar does not produce (it was edited since) are merged in and everything is re-indexed.
+    public List<ExamSlot> slotsCovering(LocalDate start, LocalDate end, Collection<ExamSlot> used) {
+        if (start == null || end == null) {
+            for (ExamSlot s : used) {
+                if (start == null || s.getDate().isBefore(start)) start = s.getDate();
+                if (end == null || s.getDate().isAfter(end)) end = s.getDate();
+            }
+        }
+        List<ExamSlot> slots = generateSlots(start, end);
+        if (new HashSet<>(slots).containsAll(used)) return slots;
+        List<ExamSlot> all = new ArrayList<>(slots);
+        all.addAll(used);
+        return indexSlots(all);
+    }
+
+    private int periodOf(DayOfWeek day, LocalTime start) {
+        List<Period> periods = getPeriods(day);
+        for (int i = 0; i < periods.size(); i++) {
+            if (periods.get(i).getStart().equals(start)) return i;
+        }
+        return -1;
+    }
+
+    // Text form, one rule per line:
+    //   MON-FRI = 09:00-11:00, 11:30-13:30
+    //   SAT = 10:00-12:00
+    //   HOLIDAY = 2026-01-01
+    // Days without a rule have no exams.
+    public static SlotCalendar parse(String text) {
+        SlotCalendar cal = new SlotCalendar();
+        if (text == null) return cal;
+
+        int lineNo = 0;
+        for (String raw : text.split("\\R")) {
+            lineNo++;
+            String line = raw.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+
+            int eq = line.indexOf('=');
+            if (eq < 0) throw new IllegalArgumentException("Line " + lineNo + ": expected KEY = VALUE");
+            String key = line.substring(0, eq).trim().toUpperCase(Locale.ROOT);
+            String value = line.substring(eq + 1).trim();
+
+            try {
+                if (key.equals("HOLIDAY")) {
+                    for (String d : value.split(",")) {
+                        if (!d.isBlank()) cal.addHoliday(LocalDate.parse(d.trim()));
+                    }
+                    continue;
+                }
+
+                List<Period> periods = new ArrayList<>();
+                for (String p : value.split(",")) {
+                    if (p.isBlank()) continue;
+                    String[] se = p.trim().split("-");
+                    if (se.length != 2) throw new IllegalArgumentException("bad period '" + p.trim() + "'");
+                    periods.add(new Period(LocalTime.parse(se[0].trim()), LocalTime.parse(se[1].trim())));
+                }
+                for (DayOfWeek d : parseDays(key)) {
+                    cal.setPeriods(d, periods);
+                }
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Line " + lineNo + ": " + e.getMessage(), e);
+            }
+        }
+        return cal;
+    }
+
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        for (DayOfWeek d : DayOfWeek.values()) {
+            List<Period> periods = getPeriods(d);
+            if (periods.isEmpty()) continue;
+            sb.append(d.getDisplayName(TextStyle.SHORT, Locale.ENGLISH).toUpperCase(Locale.ROOT)).append(" = ");
+            StringJoiner j = new StringJoiner(", ");
+            for (Period p : periods) j.add(p.toString());
+            sb.append(j).append("\n");
+        }
+        for (LocalDate h : holidays) {
+            sb.append("HOLIDAY = ").append(h).append("\n");
+        }
+        return sb.toString();
+    }
+
+    private static List<DayOfWeek> parseDays(String key) {
+        int dash = key.indexOf('-');
+        if (dash < 0) return List.of(parseDay(key));
+
+        DayOfWeek from = parseDay(key.substring(0, dash).trim());
+        DayOfWeek to = parseDay(key.substring(dash + 1).trim());
+        List<DayOfWeek> days = new ArrayList<>();
+        DayOfWeek d = from;
+        while (true) {
+            days.add(d);
+            if (d == to) break;
+            d = d.plus(1);
+        }
+        return days;
+    }
+
+    private static DayOfWeek parseDay(String s) {
+        for (DayOfWeek d : DayOfWeek.values()) {
+            if (d.name().startsWith(s) && s.length() >= 3) return d;
+        }
+        throw new IllegalArgumentException("unknown day '" + s + "'");
+    }
+}
@@ -0,0 +1,185 @@
+package org.example.se302_examscheduler;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Generated timetables stored in the database under a hash of everything that decides them:
+// enrolments, rooms, slot calendar, exam window and engine settings. An identical request is
+// answered from the store without generating. Otherwise the closest stored timetable (same
+// settings on edited data, or the same data under other settings) seeds the engine, which keeps
+// every placement that still fits and searches only for the rest. A warm start from the current
+// timetable brings its own seed, which then also becomes part of the key.
+public final class SolutionCache {
+
+    private static final int KEEP = 20;
+
+    private SolutionCache() {}
+
+    public enum Hit {
+        EXACT,  // stored timetable returned as is
+        WARM,   // generated from a stored timetable of a similar request
+        MISS    // generated from scratch
+    }
+
+    public static class Outcome {
+        final SchedulingResult result;
+        final Hit hit;
+        final String fingerprint;
+        final int seeded;
+
+        Outcome(SchedulingResult result, Hit hit, String fingerprint, int seeded) {
+            this.result = result;
+            this.hit = hit;
+            this.fingerprint = fingerprint;
+            this.seeded = seeded;
+        }
+
+        public SchedulingResult getResult() {
+            return result;
+        }
+
+        public Hit getHit() {
+            return hit;
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        // Placements offered to the engine from the stored timetable (0 unless WARM)
+        public int getSeeded() {
+            return seeded;
+        }
+    }
+
+    // One stored timetable, resolved against the current schedule
+    static class Entry {
+        final String fingerprint;
+        final SchedulingResult.Status status;
+        final long score;
+        final boolean roomSharing;
+        final List<ExamSession> sessions;
+
+        Entry(String fingerprint, SchedulingResult.Status status, long score, boolean roomSharing,
+              List<ExamSession> sessions) {
+            this.fingerprint = fingerprint;
+            this.status = status;
+            this.score = score;
+            this.roomSharing = roomSharing;
+            this.sessions = sessions;
+        }
+    }
+
+    public static Outcome generate(Schedule schedule, LocalDate start, LocalDate end, SchedulerConfig config) {
+        // A warm start is part of the request: the same inputs from another timetable are another answer
+        List<ExamSession> callerSeed = config.getSeed();
+        List<ExamSession> seed = !callerSeed.isEmpty() || !config.isWarmStart()
+                ? callerSeed
+                : schedule.snapshot().getExamSessions();
+        String data = dataHash(schedule.snapshot());
+        String settings = settingsHash(start, end, config, seed);
+        String fingerprint = sha256(data + settings);
+
+        Entry exact = DatabaseManager.loadCachedSolution(fingerprint, schedule);
+        if (exact != null) return new Outcome(install(schedule, start, end, config, exact), Hit.EXACT, fingerprint, 0);
+
+        String nearest = DatabaseManager.findNearestSolution(data, settings);
+        Entry warm = nearest == null || !seed.isEmpty() ? null : DatabaseManager.loadCachedSolution(nearest, schedule);
+        SchedulingResult result;
+        try {
+            if (warm != null) config.setSeed(warm.sessions);
+            result = SchedulingEngine.forConfig(config).generate(schedule, start, end, config);
+        } finally {
+            config.setSeed(callerSeed);
+        }
+        // A run cut short by its time budget is not the answer to this request
+        if (!result.isTimedOut()) {
+            DatabaseManager.saveCachedSolution(fingerprint, data, settings, result.getStatus(),
+                    result.getScore(), config.isAllowRoomSharing(), result.getSessions(), KEEP);
+        }
+        return new Outcome(result, warm != null ? Hit.WARM : Hit.MISS, fingerprint, warm != null ? warm.sessions.size() : 0);
+    }
+
+    private static SchedulingResult install(Schedule schedule, LocalDate start, LocalDate end,
+                                            SchedulerConfig config, Entry entry) {
+        List<ExamSlot> slots = config.getCalendar().generateSlots(start, end);
+        Map<ExamSlot, ExamSlot> canonical = new HashMap<>();
+        for (ExamSlot s : slots) canonical.put(s, s);
+        List<ExamSession> sessions = new ArrayList<>(entry.sessions.size());
+        Set<Course> placed = new HashSet<>();
+        for (ExamSession s : entry.sessions) {
+            sessions.add(s.withSlot(canonical.get(s.getSlot())));
+            placed.add(s.getCourse());
+        }
+        ScheduleSnapshot snapshot = schedule.commit(slots, sessions, entry.roomSharing);
+
+        List<Course> unscheduled = new ArrayList<>();
+        for (Course c : snapshot.getCourses()) {
+            if (!placed.contains(c)) unscheduled.add(c);
+        }
+        SchedulingResult result = new SchedulingResult(snapshot.getExamSessions(), unscheduled, false, entry.status);
+        // The weights are part of the key, so the stored score still holds
+        result.setScore(entry.score);
+        return result;
+    }
+
+    // Rooms with capacities and each course's roster, in name order so load order does not matter
+    static String dataHash(ScheduleSnapshot data) {
+        MessageDigest md = digest();
+        List<Classroom> rooms = new ArrayList<>(data.getClassrooms());
+        rooms.sort(Comparator.comparing(Classroom::getName));
+        for (Classroom r : rooms) update(md, "R\t" + r.getName() + "\t" + r.getCapacity() + "\n");
+
+        List<Course> courses = new ArrayList<>(data.getCourses());
+        courses.sort(Comparator.comparing(Course::getCode));
+        List<String> ids = new ArrayList<>();
+        for (Course c : courses) {
+            update(md, "C\t" + c.getCode() + "\n");
+            ids.clear();
+            for (Student s : c.getStudents()) ids.add(s.getId());
+            ids.sort(null);
+            for (String id : ids) update(md, id + "\n");
+        }
+        return HexFormat.of().formatHex(md.digest());
+    }
+
+    static String settingsHash(LocalDate start, LocalDate end, SchedulerConfig config, List<ExamSession> seed) {
+        MessageDigest md = digest();
+        update(md, start + "\n" + end + "\n" + config.getCalendar().format() + "\n"
+                + config.getEngine() + "\n" + config.getStrategy() + "\n" + config.getTimeBudgetMs() + "\n"
+                + config.isAllowRoomSplitting() + "\n" + config.isAllowRoomSharing() + "\n"
+                + config.getScoreWeights() + "\n");
+        List<ExamSession> sorted = new ArrayList<>(seed);
+        sorted.sort(Comparator.comparing(s -> s.getCourse().getCode()));
+        for (ExamSession s : sorted) update(md, "S\t" + s.getCourse().getCode() + "\t" + s.getRoomNames() + "\t" + s.getSlot() + "\n");
+        return HexFormat.of().formatHex(md.digest());
+    }
+
+    private static String sha256(String text) {
+        MessageDigest md = digest();
+        update(md, text);
+        return HexFormat.of().formatHex(md.digest());
+    }
+
+    private static void update(MessageDigest md, String text) {
+        md.update(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -1,11 +1,12 @@
 package org.example.se302_examscheduler;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 public class Student {
     private final String id;
-    private final List<Course> courses = new ArrayList<>();
+    // Copy-on-write, like Course.getStudents
+    private volatile List<Course> courses = MembershipList.edited(List.of(), List.of(), List.of());
 
     public Student(String id) {
         this.id = id;
@@ -15,14 +16,25 @@ public class Student {
         return id;
     }
 
+    // Read-only; a later edit replaces the list rather than changing it
     public List<Course> getCourses() {
         return courses;
     }
 
     public void addCourse(Course c) {
-        if (!courses.contains(c)) {
-            courses.add(c);
-        }
+        if (!courses.contains(c)) updateCourses(List.of(c), List.of());
+    }
+
+    public void removeCourse(Course c) {
+        if (courses.contains(c)) updateCourses(List.of(), List.of(c));
+    }
+
+    public synchronized void updateCourses(Collection<Course> added, Collection<Course> removed) {
+        courses = MembershipList.edited(courses, added, removed);
+    }
+
+    public synchronized void setCourses(Collection<Course> taken) {
+        courses = MembershipList.edited(List.of(), taken, List.of());
     }
 
     @Override